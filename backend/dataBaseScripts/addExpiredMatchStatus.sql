@@ -0,0 +1,2 @@
+-- Migracja istniejącej bazy: osobny status dopasowań wycofanych przez dopasowywanie, tylko takie są przywracane
+ALTER TYPE matched_order_status ADD VALUE IF NOT EXISTS 'EXPIRED';
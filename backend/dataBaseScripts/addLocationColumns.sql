@@ -0,0 +1,19 @@
+-- Migracja istniejącej bazy: liczbowe kolumny współrzędnych wypełnione z pola "coordinates" ("lat,lon")
+ALTER TABLE users ADD COLUMN IF NOT EXISTS latitude DOUBLE PRECISION;
+ALTER TABLE users ADD COLUMN IF NOT EXISTS longitude DOUBLE PRECISION;
+ALTER TABLE orders ADD COLUMN IF NOT EXISTS latitude DOUBLE PRECISION;
+ALTER TABLE orders ADD COLUMN IF NOT EXISTS longitude DOUBLE PRECISION;
+
+UPDATE users
+SET latitude  = CAST(SPLIT_PART(coordinates, ',', 1) AS double precision),
+    longitude = CAST(SPLIT_PART(coordinates, ',', 2) AS double precision)
+WHERE coordinates ~ '^\s*-?[0-9]+(\.[0-9]+)?\s*,\s*-?[0-9]+(\.[0-9]+)?\s*$';
+
+UPDATE orders
+SET latitude  = CAST(SPLIT_PART(coordinates, ',', 1) AS double precision),
+    longitude = CAST(SPLIT_PART(coordinates, ',', 2) AS double precision)
+WHERE coordinates ~ '^\s*-?[0-9]+(\.[0-9]+)?\s*,\s*-?[0-9]+(\.[0-9]+)?\s*$';
+
+CREATE INDEX IF NOT EXISTS idx_users_operator_location ON users (latitude, longitude) WHERE role = 'OPERATOR';
+CREATE INDEX IF NOT EXISTS idx_users_operator_radius ON users (radius) WHERE role = 'OPERATOR';
+CREATE INDEX IF NOT EXISTS idx_orders_location ON orders (latitude, longitude);
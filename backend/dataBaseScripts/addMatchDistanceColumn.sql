@@ -0,0 +1,25 @@
+-- Migracja istniejącej bazy: odległość operatora od zlecenia zapisana w dopasowaniu (wymaga addLocationColumns.sql)
+CREATE OR REPLACE FUNCTION great_circle_km(lat1 DOUBLE PRECISION, lon1 DOUBLE PRECISION,
+                                           lat2 DOUBLE PRECISION, lon2 DOUBLE PRECISION)
+    RETURNS DOUBLE PRECISION
+    LANGUAGE sql
+    IMMUTABLE
+    PARALLEL SAFE
+AS
+$$
+SELECT 6371 * acos(GREATEST(-1.0, LEAST(1.0,
+           cos(radians(lat1)) * cos(radians(lat2)) * cos(radians(lon2) - radians(lon1)) +
+           sin(radians(lat1)) * sin(radians(lat2))
+       )))
+$$;
+
+ALTER TABLE new_matched_orders ADD COLUMN IF NOT EXISTS distance_km DOUBLE PRECISION;
+
+UPDATE new_matched_orders nmo
+SET distance_km = great_circle_km(o.latitude, o.longitude, u.latitude, u.longitude)
+FROM orders o, users u
+WHERE nmo.order_id = o.id
+  AND nmo.operator_id = u.id
+  AND nmo.distance_km IS NULL;
+
+CREATE INDEX IF NOT EXISTS idx_new_matched_orders_operator_distance ON new_matched_orders (operator_id, distance_km);
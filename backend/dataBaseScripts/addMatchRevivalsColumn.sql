@@ -0,0 +1,2 @@
+-- Migracja istniejącej bazy: licznik przywróceń dopasowania, odróżnia powiadomienia o przywróconym dopasowaniu (wymaga addExpiredMatchStatus.sql)
+ALTER TABLE new_matched_orders ADD COLUMN IF NOT EXISTS revivals INTEGER NOT NULL DEFAULT 0;
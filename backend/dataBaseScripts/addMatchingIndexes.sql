@@ -0,0 +1,16 @@
+-- Migracja istniejącej bazy: komórki zasięgu operatorów i indeksy zapytań dopasowujących (wymaga addLocationColumns.sql)
+CREATE TABLE IF NOT EXISTS operator_coverage_cells
+(
+    cell_key     BIGINT       NOT NULL,
+    service_name VARCHAR(100) NOT NULL REFERENCES services (name) ON DELETE CASCADE,
+    operator_id  UUID         NOT NULL REFERENCES users (id) ON DELETE CASCADE,
+    PRIMARY KEY (cell_key, service_name, operator_id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_operator_coverage_cells_operator ON operator_coverage_cells (operator_id);
+CREATE INDEX IF NOT EXISTS idx_new_matched_orders_operator_pending ON new_matched_orders (operator_id)
+    WHERE operator_status = 'PENDING' AND client_status = 'PENDING';
+CREATE INDEX IF NOT EXISTS idx_new_matched_orders_order_pending ON new_matched_orders (order_id)
+    WHERE operator_status = 'PENDING' OR client_status = 'PENDING';
+CREATE INDEX IF NOT EXISTS idx_orders_open_to_date ON orders (to_date) WHERE status = 'OPEN';
+CREATE INDEX IF NOT EXISTS idx_reviews_target ON reviews (target_id);
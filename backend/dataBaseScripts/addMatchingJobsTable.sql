@@ -0,0 +1,14 @@
+-- Migracja istniejącej bazy: kolejka zadań dopasowywania zleceń i operatorów
+CREATE TABLE IF NOT EXISTS matching_jobs
+(
+    id           BIGSERIAL PRIMARY KEY,
+    job_type     VARCHAR(32) NOT NULL,
+    target_id    UUID        NOT NULL,
+    status       VARCHAR(16) NOT NULL DEFAULT 'PENDING',
+    attempts     INTEGER     NOT NULL DEFAULT 0,
+    available_at TIMESTAMP   NOT NULL DEFAULT NOW(),
+    created_at   TIMESTAMP   NOT NULL DEFAULT NOW(),
+    last_error   TEXT
+);
+
+CREATE INDEX IF NOT EXISTS idx_matching_jobs_due ON matching_jobs (available_at, id) WHERE status = 'PENDING';
@@ -0,0 +1,19 @@
+-- Migracja istniejącej bazy: kolejka powiadomień e-mail (outbox) wysyłanych po zatwierdzeniu transakcji
+CREATE TABLE IF NOT EXISTS notification_outbox
+(
+    id                BIGSERIAL PRIMARY KEY,
+    send_key          VARCHAR(160) NOT NULL UNIQUE,
+    notification_type VARCHAR(48)  NOT NULL,
+    recipient_email   VARCHAR(255) NOT NULL,
+    payload           JSONB        NOT NULL,
+    status            VARCHAR(16)  NOT NULL DEFAULT 'PENDING',
+    attempts          INTEGER      NOT NULL DEFAULT 0,
+    available_at      TIMESTAMP    NOT NULL DEFAULT NOW(),
+    created_at        TIMESTAMP    NOT NULL DEFAULT NOW(),
+    sent_at           TIMESTAMP,
+    last_error        TEXT
+);
+
+CREATE INDEX IF NOT EXISTS idx_notification_outbox_due ON notification_outbox (available_at, id) WHERE status = 'PENDING';
+CREATE INDEX IF NOT EXISTS idx_notification_outbox_digest ON notification_outbox (recipient_email, available_at)
+    WHERE status = 'PENDING' AND notification_type = 'NEW_ORDER' AND attempts = 0;
@@ -0,0 +1,2 @@
+-- Migracja istniejącej bazy: indeks do liczenia e-maili wysłanych w ostatniej dobie (dzienny limit SMTP, wymaga addNotificationOutboxTable.sql)
+CREATE INDEX IF NOT EXISTS idx_notification_outbox_sent ON notification_outbox (sent_at) WHERE status = 'SENT';
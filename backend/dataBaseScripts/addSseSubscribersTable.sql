@@ -0,0 +1,9 @@
+-- Migracja istniejącej bazy: użytkownicy z otwartym strumieniem zdarzeń (SSE), per kanał i węzeł aplikacji
+CREATE TABLE IF NOT EXISTS sse_subscribers
+(
+    channel       VARCHAR(64) NOT NULL,
+    subscriber_id UUID        NOT NULL,
+    node_id       UUID        NOT NULL,
+    last_seen     TIMESTAMP   NOT NULL DEFAULT NOW(),
+    PRIMARY KEY (channel, subscriber_id, node_id)
+);
@@ -0,0 +1,2 @@
+-- Migracja istniejącej bazy: język powiadomień e-mail użytkownika (brak wartości oznacza polski)
+ALTER TABLE users ADD COLUMN IF NOT EXISTS locale VARCHAR(35);
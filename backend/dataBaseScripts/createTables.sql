@@ -1,3 +1,7 @@
+DROP TABLE IF EXISTS sse_subscribers CASCADE;
+DROP TABLE IF EXISTS notification_outbox CASCADE;
+DROP TABLE IF EXISTS operator_coverage_cells CASCADE;
+DROP TABLE IF EXISTS matching_jobs CASCADE;
 DROP TABLE IF EXISTS reviews CASCADE;
 DROP TABLE IF EXISTS new_matched_orders CASCADE;
 DROP TABLE IF EXISTS operator_service CASCADE;
@@ -31,7 +35,8 @@ CREATE TYPE order_status AS ENUM (
 CREATE TYPE matched_order_status AS ENUM (
     'PENDING',
     'ACCEPTED',
-    'REJECTED'
+    'REJECTED',
+    'EXPIRED'
     );
 
 
@@ -50,8 +55,11 @@ CREATE TABLE users
     provider_user_id      VARCHAR(255) UNIQUE,
     provider_refresh_token TEXT,
     coordinates         VARCHAR(255), -- Np. "52.2297,21.0122"
+    latitude            DOUBLE PRECISION,
+    longitude           DOUBLE PRECISION,
     radius              INTEGER,
-    certificates        JSONB         -- np. ['cert1', 'cert2']
+    certificates        JSONB,        -- np. ['cert1', 'cert2']
+    locale              VARCHAR(35)   -- np. "pl", "en-GB"; język powiadomień e-mail
 );
 
 CREATE TABLE services
@@ -92,6 +100,8 @@ CREATE TABLE orders
     service_name  VARCHAR(100) REFERENCES services (name),
     parameters  JSONB,  -- key -value pairs specific to the service
     coordinates VARCHAR(255),
+    latitude    DOUBLE PRECISION,
+    longitude   DOUBLE PRECISION,
     from_date   TIMESTAMP NOT NULL,
     to_date     TIMESTAMP NOT NULL,
     created_at  TIMESTAMP    DEFAULT NOW(),
@@ -105,6 +115,8 @@ CREATE TABLE new_matched_orders
     order_id        UUID NOT NULL REFERENCES orders (id) ON DELETE CASCADE,
     operator_status matched_order_status DEFAULT 'PENDING',
     client_status   matched_order_status DEFAULT 'PENDING',
+    distance_km     DOUBLE PRECISION,
+    revivals        INTEGER NOT NULL DEFAULT 0,
     UNIQUE (operator_id, order_id) -- One operator can match to one order only once
 );
 
@@ -116,4 +128,80 @@ CREATE TABLE reviews
     target_id UUID NOT NULL REFERENCES users (id) ON DELETE CASCADE,
     body      TEXT,
     stars     INTEGER CHECK (stars >= 1 AND stars <= 5)
-);
\ No newline at end of file
+);
+
+CREATE TABLE operator_coverage_cells
+(
+    cell_key     BIGINT       NOT NULL,
+    service_name VARCHAR(100) NOT NULL REFERENCES services (name) ON DELETE CASCADE,
+    operator_id  UUID         NOT NULL REFERENCES users (id) ON DELETE CASCADE,
+    PRIMARY KEY (cell_key, service_name, operator_id)
+);
+
+CREATE TABLE matching_jobs
+(
+    id           BIGSERIAL PRIMARY KEY,
+    job_type     VARCHAR(32) NOT NULL,
+    target_id    UUID        NOT NULL,
+    status       VARCHAR(16) NOT NULL DEFAULT 'PENDING',
+    attempts     INTEGER     NOT NULL DEFAULT 0,
+    available_at TIMESTAMP   NOT NULL DEFAULT NOW(),
+    created_at   TIMESTAMP   NOT NULL DEFAULT NOW(),
+    last_error   TEXT
+);
+
+CREATE TABLE notification_outbox
+(
+    id                BIGSERIAL PRIMARY KEY,
+    send_key          VARCHAR(160) NOT NULL UNIQUE,
+    notification_type VARCHAR(48)  NOT NULL,
+    recipient_email   VARCHAR(255) NOT NULL,
+    payload           JSONB        NOT NULL,
+    status            VARCHAR(16)  NOT NULL DEFAULT 'PENDING',
+    attempts          INTEGER      NOT NULL DEFAULT 0,
+    available_at      TIMESTAMP    NOT NULL DEFAULT NOW(),
+    created_at        TIMESTAMP    NOT NULL DEFAULT NOW(),
+    sent_at           TIMESTAMP,
+    last_error        TEXT
+);
+
+CREATE TABLE sse_subscribers
+(
+    channel       VARCHAR(64) NOT NULL,
+    subscriber_id UUID        NOT NULL,
+    node_id       UUID        NOT NULL,
+    last_seen     TIMESTAMP   NOT NULL DEFAULT NOW(),
+    PRIMARY KEY (channel, subscriber_id, node_id)
+);
+
+-- Great-circle distance in km (spherical law of cosines), the same formula as GeoPoint.distanceTo
+CREATE OR REPLACE FUNCTION great_circle_km(lat1 DOUBLE PRECISION, lon1 DOUBLE PRECISION,
+                                           lat2 DOUBLE PRECISION, lon2 DOUBLE PRECISION)
+    RETURNS DOUBLE PRECISION
+    LANGUAGE sql
+    IMMUTABLE
+    PARALLEL SAFE
+AS
+$$
+SELECT 6371 * acos(GREATEST(-1.0, LEAST(1.0,
+           cos(radians(lat1)) * cos(radians(lat2)) * cos(radians(lon2) - radians(lon1)) +
+           sin(radians(lat1)) * sin(radians(lat2))
+       )))
+$$;
+
+CREATE INDEX idx_users_operator_location ON users (latitude, longitude) WHERE role = 'OPERATOR';
+CREATE INDEX idx_users_operator_radius ON users (radius) WHERE role = 'OPERATOR';
+CREATE INDEX idx_orders_location ON orders (latitude, longitude);
+CREATE INDEX idx_matching_jobs_due ON matching_jobs (available_at, id) WHERE status = 'PENDING';
+CREATE INDEX idx_new_matched_orders_operator_pending ON new_matched_orders (operator_id)
+    WHERE operator_status = 'PENDING' AND client_status = 'PENDING';
+CREATE INDEX idx_reviews_target ON reviews (target_id);
+CREATE INDEX idx_operator_coverage_cells_operator ON operator_coverage_cells (operator_id);
+CREATE INDEX idx_new_matched_orders_operator_distance ON new_matched_orders (operator_id, distance_km);
+CREATE INDEX idx_orders_open_to_date ON orders (to_date) WHERE status = 'OPEN';
+CREATE INDEX idx_new_matched_orders_order_pending ON new_matched_orders (order_id)
+    WHERE operator_status = 'PENDING' OR client_status = 'PENDING';
+CREATE INDEX idx_notification_outbox_due ON notification_outbox (available_at, id) WHERE status = 'PENDING';
+CREATE INDEX idx_notification_outbox_digest ON notification_outbox (recipient_email, available_at)
+    WHERE status = 'PENDING' AND notification_type = 'NEW_ORDER' AND attempts = 0;
+CREATE INDEX idx_notification_outbox_sent ON notification_outbox (sent_at) WHERE status = 'SENT';
@@ -117,6 +117,17 @@ SELECT
     'OPEN'::order_status
 FROM generate_series(1, 3000) AS i; -- Generujemy 3000 zleceń
 
+-- 5a. Uzupełnienie liczbowych współrzędnych
+UPDATE users
+SET latitude  = CAST(SPLIT_PART(coordinates, ',', 1) AS double precision),
+    longitude = CAST(SPLIT_PART(coordinates, ',', 2) AS double precision)
+WHERE coordinates IS NOT NULL;
+
+UPDATE orders
+SET latitude  = CAST(SPLIT_PART(coordinates, ',', 1) AS double precision),
+    longitude = CAST(SPLIT_PART(coordinates, ',', 2) AS double precision)
+WHERE coordinates IS NOT NULL;
+
 -- 6. Generowanie DOPASOWAŃ (New Matched Orders)
 INSERT INTO new_matched_orders (operator_id, order_id, operator_status, client_status)
 SELECT
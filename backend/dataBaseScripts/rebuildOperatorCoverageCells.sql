@@ -0,0 +1,3 @@
+-- Migracja istniejącej bazy: przebudowa komórek zasięgu operatorów po zmianie siatki lub sposobu wyznaczania zasięgu
+-- (poprzednie komórki nie obejmowały całego promienia); aplikacja wypełnia tabelę ponownie przy starcie
+TRUNCATE operator_coverage_cells;
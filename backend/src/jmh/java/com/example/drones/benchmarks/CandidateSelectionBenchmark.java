@@ -0,0 +1,106 @@
+package com.example.drones.benchmarks;
+
+import com.example.drones.benchmarks.SyntheticWorkload.SyntheticOrder;
+import com.example.drones.common.GeoGrid;
+import com.example.drones.common.GeoPoint;
+import com.example.drones.orders.OperatorSpatialIndex;
+import com.example.drones.user.UserEntity;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Candidate selection for new orders: the grid index against a full scan of all operators, and the
+ * in-memory half of match-row creation, i.e. turning a batch of orders into the operator/order id
+ * arrays handed to the set-based insert.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CandidateSelectionBenchmark {
+
+    @Param({"UNIFORM", "CITY_CLUSTERS", "RURAL"})
+    private SyntheticWorkload.Distribution distribution;
+
+    @Param({"1000", "10000", "100000"})
+    private int operators;
+
+    @Param({"100"})
+    private int batchSize;
+
+    private SyntheticWorkload workload;
+    private OperatorSpatialIndex index;
+    private List<SyntheticOrder> batch;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        workload = new SyntheticWorkload(distribution, operators, 10_000, 42L);
+        index = new OperatorSpatialIndex(new GeoGrid(0.25));
+        index.rebuild(workload.operators, workload.servicesByOperator);
+        batch = workload.orders.subList(0, batchSize);
+    }
+
+    private SyntheticOrder nextOrder() {
+        cursor = (cursor + 1) % workload.orders.size();
+        return workload.orders.get(cursor);
+    }
+
+    @Benchmark
+    public List<UUID> spatialIndexLookup() {
+        SyntheticOrder order = nextOrder();
+        return index.findCoveringOperators(order.service(), order.location(), order.clientId());
+    }
+
+    @Benchmark
+    public List<UUID> fullScanLookup() {
+        SyntheticOrder order = nextOrder();
+        List<UUID> covering = new ArrayList<>();
+        for (UserEntity operator : workload.operators) {
+            if (!workload.servicesByOperator.get(operator.getId()).contains(order.service())) {
+                continue;
+            }
+            GeoPoint location = GeoPoint.parse(operator.getCoordinates());
+            if (location.distanceTo(order.location()) <= operator.getRadius()) {
+                covering.add(operator.getId());
+            }
+        }
+        return covering;
+    }
+
+    @Benchmark
+    public void matchBatch(Blackhole blackhole) {
+        List<UUID> operatorIds = new ArrayList<>();
+        List<UUID> orderIds = new ArrayList<>();
+        for (SyntheticOrder order : batch) {
+            GeoPoint location = GeoPoint.tryParse(order.coordinates());
+            if (location == null) {
+                continue;
+            }
+            for (UUID operatorId : index.findCoveringOperators(order.service(), location, order.clientId())) {
+                operatorIds.add(operatorId);
+                orderIds.add(order.id());
+            }
+        }
+        blackhole.consume(operatorIds.toArray(UUID[]::new));
+        blackhole.consume(orderIds.toArray(UUID[]::new));
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.drones.benchmarks;
+
+import com.example.drones.benchmarks.SyntheticWorkload.SyntheticOrder;
+import com.example.drones.common.GeoPoint;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Distance between an operator and an order: the string-based path used when listing matched orders
+ * against the parsed points used by the matching engine.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DistanceBenchmark {
+
+    private List<SyntheticOrder> orders;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        orders = new SyntheticWorkload(SyntheticWorkload.Distribution.UNIFORM, 0, 1024, 7L).orders;
+    }
+
+    private SyntheticOrder next() {
+        cursor = (cursor + 1) & (orders.size() - 1);
+        return orders.get(cursor);
+    }
+
+    @Benchmark
+    public Double distanceFromStrings() {
+        SyntheticOrder from = next();
+        SyntheticOrder to = orders.get((cursor + 512) & (orders.size() - 1));
+        return GeoPoint.distanceBetween(from.coordinates(), to.coordinates());
+    }
+
+    @Benchmark
+    public double distanceFromPoints() {
+        SyntheticOrder from = next();
+        SyntheticOrder to = orders.get((cursor + 512) & (orders.size() - 1));
+        return from.location().distanceTo(to.location());
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.drones.benchmarks;
+
+import com.example.drones.common.concurrency.DownstreamLimiter;
+import com.example.drones.notifications.EmailService;
+import com.example.drones.notifications.EmailTemplates;
+import com.example.drones.notifications.NotificationEntity;
+import com.example.drones.notifications.NotificationMessage;
+import com.example.drones.notifications.NotificationType;
+import com.icegreen.greenmail.util.GreenMail;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One order fanned out to many operators, sent against the GreenMail server the email tests use: a separate
+ * SMTP session per message, as the notifications used to go out, against one session for the whole batch.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EmailBatchBenchmark {
+
+    @Param({"20", "100"})
+    private int recipients;
+
+    private GreenMail greenMail;
+    private EmailService emailService;
+    private List<NotificationEntity> batch;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        greenMail = new GreenMail(ServerSetupTest.SMTP);
+        greenMail.start();
+
+        JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("localhost");
+        mailSender.setPort(ServerSetupTest.SMTP.getPort());
+        emailService = new EmailService(mailSender, new EmailTemplates(),
+                new DownstreamLimiter(new SimpleMeterRegistry(), 1, 1, 4, 1, 1, Duration.ofSeconds(30)));
+        ReflectionTestUtils.setField(emailService, "frontendUrl", "http://localhost:3000");
+
+        batch = new ArrayList<>(recipients);
+        for (long i = 0; i < recipients; i++) {
+            batch.add(NotificationEntity.builder()
+                    .id(i)
+                    .type(NotificationType.NEW_ORDER)
+                    .recipientEmail("operator" + i + "@test.com")
+                    .payload(Map.of(
+                            NotificationMessage.RECIPIENT_NAME, "Operator " + i,
+                            NotificationMessage.TITLE, "Inspekcja dachu",
+                            NotificationMessage.DESCRIPTION, "Zdjęcia dachu budynku biurowego",
+                            NotificationMessage.SERVICE, "Laser Scanning",
+                            NotificationMessage.COORDINATES, "52.2297, 21.0122",
+                            NotificationMessage.ORDER_ID, "5f0c6f4e-8a55-4c55-9d7e-0a4b7c1f2e11"
+                    ))
+                    .build());
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void purgeMailboxes() throws Exception {
+        greenMail.purgeEmailFromAllMailboxes();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        greenMail.stop();
+    }
+
+    @Benchmark
+    public void sessionPerMessage(Blackhole blackhole) {
+        for (NotificationEntity notification : batch) {
+            blackhole.consume(emailService.sendAll(List.of(notification)));
+        }
+    }
+
+    @Benchmark
+    public Map<Long, Exception> sharedSession() {
+        return emailService.sendAll(batch);
+    }
+}
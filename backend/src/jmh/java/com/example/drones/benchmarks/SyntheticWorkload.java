@@ -0,0 +1,113 @@
+package com.example.drones.benchmarks;
+
+import com.example.drones.common.GeoPoint;
+import com.example.drones.user.UserEntity;
+import com.example.drones.user.UserRole;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Seeded, reproducible operators and orders spread over Poland, so runs on different machines and
+ * commits see the same data.
+ */
+public final class SyntheticWorkload {
+
+    public enum Distribution {
+        // Operators and orders spread evenly over the country with mid-sized radii.
+        UNIFORM,
+        // Most operators and orders packed around the largest cities with small radii.
+        CITY_CLUSTERS,
+        // Few operators with large radii and orders scattered far from each other.
+        RURAL
+    }
+
+    static final List<String> SERVICES = List.of("Photography", "Laser Scanning", "Inspection", "Mapping", "Spraying");
+
+    private static final double MIN_LAT = 49.0;
+    private static final double MAX_LAT = 54.8;
+    private static final double MIN_LON = 14.1;
+    private static final double MAX_LON = 24.1;
+
+    private static final List<GeoPoint> CITIES = List.of(
+            new GeoPoint(52.2297, 21.0122),
+            new GeoPoint(50.0647, 19.9450),
+            new GeoPoint(51.1079, 17.0385),
+            new GeoPoint(52.4064, 16.9252),
+            new GeoPoint(54.3520, 18.6466),
+            new GeoPoint(51.7592, 19.4560)
+    );
+
+    record SyntheticOrder(UUID id, UUID clientId, String service, GeoPoint location, String coordinates) {
+    }
+
+    final List<UserEntity> operators = new ArrayList<>();
+    final Map<UUID, List<String>> servicesByOperator = new HashMap<>();
+    final List<SyntheticOrder> orders = new ArrayList<>();
+
+    private final Distribution distribution;
+    private final Random random;
+
+    SyntheticWorkload(Distribution distribution, int operatorCount, int orderCount, long seed) {
+        this.distribution = distribution;
+        this.random = new Random(seed);
+        for (int i = 0; i < operatorCount; i++) {
+            GeoPoint location = nextLocation();
+            UserEntity operator = UserEntity.builder()
+                    .id(new UUID(seed, i))
+                    .role(UserRole.OPERATOR)
+                    .coordinates(location.latitude() + ", " + location.longitude())
+                    .radius(nextRadius())
+                    .build();
+            operators.add(operator);
+            servicesByOperator.put(operator.getId(), nextServices());
+        }
+        for (int i = 0; i < orderCount; i++) {
+            GeoPoint location = nextLocation();
+            orders.add(new SyntheticOrder(
+                    new UUID(~seed, i),
+                    new UUID(seed + 1, i),
+                    SERVICES.get(random.nextInt(SERVICES.size())),
+                    location,
+                    location.latitude() + ", " + location.longitude()
+            ));
+        }
+    }
+
+    private GeoPoint nextLocation() {
+        if (distribution == Distribution.CITY_CLUSTERS && random.nextDouble() < 0.9) {
+            GeoPoint city = CITIES.get(random.nextInt(CITIES.size()));
+            return new GeoPoint(
+                    clamp(city.latitude() + random.nextGaussian() * 0.1, MIN_LAT, MAX_LAT),
+                    clamp(city.longitude() + random.nextGaussian() * 0.15, MIN_LON, MAX_LON)
+            );
+        }
+        return new GeoPoint(
+                MIN_LAT + random.nextDouble() * (MAX_LAT - MIN_LAT),
+                MIN_LON + random.nextDouble() * (MAX_LON - MIN_LON)
+        );
+    }
+
+    private int nextRadius() {
+        return switch (distribution) {
+            case UNIFORM -> 10 + random.nextInt(41);
+            case CITY_CLUSTERS -> 5 + random.nextInt(26);
+            case RURAL -> 50 + random.nextInt(101);
+        };
+    }
+
+    private List<String> nextServices() {
+        List<String> shuffled = new ArrayList<>(SERVICES);
+        Collections.shuffle(shuffled, random);
+        return List.copyOf(shuffled.subList(0, 1 + random.nextInt(3)));
+    }
+
+    private static double clamp(double value, double min, double max) {
+        return Math.max(min, Math.min(max, value));
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.drones.benchmarks;
+
+import com.example.drones.notifications.EmailTemplates;
+import com.example.drones.notifications.NotificationTemplate;
+import com.example.drones.notifications.NotificationType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Body rendering for one order sent to many operators: the String.format bodies the notifications used to
+ * be built with, the compiled templates rendered in full for every recipient, and the compiled templates with
+ * the order part rendered once and shared.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TemplateRenderingBenchmark {
+
+    private static final String FRONTEND_URL = "https://drones.example.com";
+
+    @Param({"1", "20"})
+    private int recipients;
+
+    private NotificationTemplate template;
+    private Map<String, String> order;
+    private String[] names;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        template = new EmailTemplates().get(NotificationType.NEW_ORDER, EmailTemplates.DEFAULT_LOCALE);
+        order = new HashMap<>(Map.of(
+                "title", "Inspekcja dachu",
+                "description", "Zdjęcia dachu budynku biurowego przy ul. Marszałkowskiej",
+                "service", "Laser Scanning",
+                "coordinates", "52.2297, 21.0122"
+        ));
+        names = new String[recipients];
+        for (int i = 0; i < recipients; i++) {
+            names[i] = "Operator" + i;
+        }
+    }
+
+    private String value(String slot, String recipientName) {
+        return switch (slot) {
+            case "recipientName" -> recipientName;
+            case "frontendUrl" -> FRONTEND_URL;
+            case "mapsUrl" -> "https://www.google.com/maps/search/?api=1&query=" + order.get("coordinates").trim().replace(" ", "");
+            default -> order.get(slot);
+        };
+    }
+
+    @Benchmark
+    public void stringFormat(Blackhole blackhole) {
+        for (String name : names) {
+            blackhole.consume(String.format(
+                    "Witaj %s,%n%nDostępne jest nowe zlecenie:%n" +
+                            "Tytuł zlecenia: %s%n" +
+                            "Opis zlecenia: %s%n" +
+                            "Usługa: %s%n" +
+                            "Lokalizacja: %s%n%n" +
+                            "Zaloguj się, aby sprawdzić szczegóły: %s",
+                    name,
+                    order.get("title"),
+                    order.get("description"),
+                    order.get("service"),
+                    "https://www.google.com/maps/search/?api=1&query=" + order.get("coordinates").trim().replace(" ", ""),
+                    FRONTEND_URL
+            ));
+        }
+    }
+
+    @Benchmark
+    public void compiledPerRecipient(Blackhole blackhole) {
+        for (String name : names) {
+            Function<String, String> values = slot -> value(slot, name);
+            StringBuilder body = new StringBuilder(512);
+            template.greeting().renderTo(body, values);
+            template.body().renderTo(body, values);
+            blackhole.consume(body.toString());
+        }
+    }
+
+    @Benchmark
+    public void compiledWithSharedOrderPart(Blackhole blackhole) {
+        String shared = template.body().render(slot -> value(slot, null));
+        for (String name : names) {
+            StringBuilder body = new StringBuilder(512);
+            template.greeting().renderTo(body, slot -> value(slot, name));
+            body.append(shared);
+            blackhole.consume(body.toString());
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package com.example.drones.admin;
 
+import com.example.drones.admin.dto.ExecutorStatsDto;
+import com.example.drones.admin.dto.MatchingStatsDto;
 import com.example.drones.admin.dto.OrderDto;
 import com.example.drones.admin.dto.OrderFilters;
 import com.example.drones.admin.dto.SystemStatsDto;
@@ -55,4 +57,18 @@ class AdminController {
         SystemStatsDto stats = adminService.getSystemStats();
         return ResponseEntity.ok().body(stats);
     }
+
+    @GetMapping("/getMatchingStats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<MatchingStatsDto> getMatchingStats() {
+        MatchingStatsDto stats = adminService.getMatchingStats();
+        return ResponseEntity.ok().body(stats);
+    }
+
+    @GetMapping("/getExecutorStats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ExecutorStatsDto> getExecutorStats() {
+        ExecutorStatsDto stats = adminService.getExecutorStats();
+        return ResponseEntity.ok().body(stats);
+    }
 }
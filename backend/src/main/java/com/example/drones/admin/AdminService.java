@@ -2,10 +2,20 @@ package com.example.drones.admin;
 
 import com.example.drones.admin.dto.*;
 import com.example.drones.admin.exceptions.NoSuchUserException;
+import com.example.drones.common.concurrency.ExecutorMetrics;
 import com.example.drones.orders.MatchedOrderStatus;
+import com.example.drones.orders.MatchingMetrics;
 import com.example.drones.orders.OrderStatus;
 import com.example.drones.user.UserEntity;
 import com.example.drones.user.UserRole;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
@@ -13,14 +23,15 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 
-import java.util.List;
-import java.util.UUID;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
 
 @Service
 @RequiredArgsConstructor
 class AdminService {
     private final AdminRepository adminRepository;
     private final AdminMapper adminMapper;
+    private final MeterRegistry meterRegistry;
 
     public Page<UserDto> getUsers(String query, UserRole role, Pageable pageable) {
         return adminRepository.findAllByQueryAndRole(query, role, pageable);
@@ -82,6 +93,74 @@ class AdminService {
                 .build();
     }
 
+    public MatchingStatsDto getMatchingStats() {
+        List<MatchingStatsDto.MeterStats> meters = meterRegistry.getMeters().stream()
+                .filter(meter -> meter.getId().getName().startsWith(MatchingMetrics.PREFIX))
+                .map(this::toMeterStats)
+                .filter(Objects::nonNull)
+                .sorted(Comparator.comparing(MatchingStatsDto.MeterStats::getName)
+                        .thenComparing(stats -> stats.getTags().toString()))
+                .toList();
+        return MatchingStatsDto.builder().meters(meters).build();
+    }
+
+    public ExecutorStatsDto getExecutorStats() {
+        Map<String, ExecutorStatsDto.ExecutorStats> executors = new TreeMap<>();
+        for (Meter meter : meterRegistry.getMeters()) {
+            String name = meter.getId().getName();
+            String executor = meter.getId().getTag(ExecutorMetrics.EXECUTOR_TAG);
+            if (!name.startsWith(ExecutorMetrics.PREFIX) || executor == null) {
+                continue;
+            }
+            ExecutorStatsDto.ExecutorStats stats = executors.computeIfAbsent(executor, key -> ExecutorStatsDto.ExecutorStats.builder()
+                    .executor(key)
+                    .type(meter.getId().getTag(ExecutorMetrics.TYPE_TAG))
+                    .build());
+            switch (name) {
+                case ExecutorMetrics.ACTIVE -> stats.setActive((int) ((Gauge) meter).value());
+                case ExecutorMetrics.QUEUED -> stats.setQueued((int) ((Gauge) meter).value());
+                case ExecutorMetrics.REJECTED -> stats.setRejected((long) ((Counter) meter).count());
+                case ExecutorMetrics.WAIT -> stats.setWait(toMeterStats(meter));
+                case ExecutorMetrics.EXECUTION -> stats.setExecution(toMeterStats(meter));
+                default -> {
+                }
+            }
+        }
+        return ExecutorStatsDto.builder().executors(List.copyOf(executors.values())).build();
+    }
+
+    private MatchingStatsDto.MeterStats toMeterStats(Meter meter) {
+        HistogramSnapshot snapshot;
+        String unit;
+        if (meter instanceof Timer timer) {
+            snapshot = timer.takeSnapshot();
+            unit = "ms";
+        } else if (meter instanceof DistributionSummary summary) {
+            snapshot = summary.takeSnapshot();
+            unit = meter.getId().getBaseUnit();
+        } else {
+            return null;
+        }
+        Map<String, String> tags = new TreeMap<>();
+        meter.getId().getTags().forEach(tag -> tags.put(tag.getKey(), tag.getValue()));
+        boolean isTimer = meter instanceof Timer;
+        Map<Double, Double> percentiles = new HashMap<>();
+        for (ValueAtPercentile value : snapshot.percentileValues()) {
+            percentiles.put(value.percentile(), isTimer ? value.value(TimeUnit.MILLISECONDS) : value.value());
+        }
+        return MatchingStatsDto.MeterStats.builder()
+                .name(meter.getId().getName())
+                .tags(tags)
+                .unit(unit)
+                .count(snapshot.count())
+                .mean(isTimer ? snapshot.mean(TimeUnit.MILLISECONDS) : snapshot.mean())
+                .p50(percentiles.get(0.5))
+                .p95(percentiles.get(0.95))
+                .p99(percentiles.get(0.99))
+                .max(isTimer ? snapshot.max(TimeUnit.MILLISECONDS) : snapshot.max())
+                .build();
+    }
+
     private Double calculateAvgPerOperator(Long activeOrders, Long operatorsCount) {
         return operatorsCount > 0
                 ? (double) Math.round((activeOrders.doubleValue() / operatorsCount) * 10) / 10
@@ -0,0 +1,33 @@
+package com.example.drones.admin.dto;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@SuppressFBWarnings({"EI_EXPOSE_REP", "EI_EXPOSE_REP2"})
+public class ExecutorStatsDto {
+    private List<ExecutorStats> executors;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    @SuppressFBWarnings({"EI_EXPOSE_REP", "EI_EXPOSE_REP2"})
+    public static class ExecutorStats {
+        private String executor;
+        private String type;
+        private Integer active;
+        private Integer queued;
+        private Long rejected;
+        private MatchingStatsDto.MeterStats wait;
+        private MatchingStatsDto.MeterStats execution;
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.drones.admin.dto;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@SuppressFBWarnings({"EI_EXPOSE_REP", "EI_EXPOSE_REP2"})
+public class MatchingStatsDto {
+    private List<MeterStats> meters;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    @SuppressFBWarnings({"EI_EXPOSE_REP", "EI_EXPOSE_REP2"})
+    public static class MeterStats {
+        private String name;
+        private Map<String, String> tags;
+        private String unit;
+        private Long count;
+        private Double mean;
+        private Double p50;
+        private Double p95;
+        private Double p99;
+        private Double max;
+    }
+}
@@ -93,6 +93,7 @@ public class OAuth2AuthenticationSuccessHandler extends SimpleUrlAuthenticationS
                         .providerRefreshToken(refreshToken)
                         .name(name)
                         .surname(surname)
+                        .locale(oAuth2User.getAttribute("locale"))
                         .role(UserRole.INCOMPLETE)
                         .build();
                 userRepository.save(newProviderUser);
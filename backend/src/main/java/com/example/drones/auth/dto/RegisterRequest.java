@@ -3,6 +3,8 @@ package com.example.drones.auth.dto;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
 import lombok.Builder;
 
 @Builder
@@ -12,6 +14,7 @@ public record RegisterRequest(
         @NotNull String name,
         @NotNull String surname,
         @NotNull @Email String email,
-        @NotNull @JsonProperty("phone_number") String phoneNumber
+        @NotNull @JsonProperty("phone_number") String phoneNumber,
+        @Size(max = 35) @Pattern(regexp = "[A-Za-z]{2,8}(-[A-Za-z0-9]{1,8})*") String locale
 ) {
 }
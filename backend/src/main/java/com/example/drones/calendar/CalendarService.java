@@ -4,6 +4,9 @@ import com.example.drones.calendar.dto.SchedulableOrders;
 import com.example.drones.calendar.exceptions.AddEventToCalendarException;
 import com.example.drones.calendar.exceptions.OrderInProgressByOperatorIdNotFoundException;
 import com.example.drones.calendar.exceptions.UserIsNotConnectedToGoogleException;
+import com.example.drones.common.concurrency.Downstream;
+import com.example.drones.common.concurrency.DownstreamLimiter;
+import com.example.drones.common.config.exceptions.DownstreamBusyException;
 import com.example.drones.common.config.exceptions.UserNotFoundException;
 import com.example.drones.orders.OrdersEntity;
 import com.example.drones.orders.OrdersMapper;
@@ -47,6 +50,7 @@ public class CalendarService {
     private final UserRepository userRepository;
     private final OrdersRepository ordersRepository;
     private final OrdersMapper ordersMapper;
+    private final DownstreamLimiter downstreamLimiter;
 
     @Value("${spring.security.oauth2.client.registration.google.client-id}")
     private String clientId;
@@ -78,17 +82,15 @@ public class CalendarService {
             Calendar service = buildCalendarService(userRefreshToken);
 
             try {
-                return service.events()
-                        .insert("primary", event)
-                        .execute()
+                return downstreamLimiter.call(Downstream.GOOGLE_CALENDAR,
+                                service.events().insert("primary", event)::execute)
                         .getHtmlLink();
 
             } catch (GoogleJsonResponseException e) {
                 if (e.getStatusCode() == 409) {
                     log.info("Wydarzenie {} już istnieje. Aktualizuję.", googleEventId);
-                    return service.events()
-                            .update("primary", googleEventId, event)
-                            .execute()
+                    return downstreamLimiter.call(Downstream.GOOGLE_CALENDAR,
+                                    service.events().update("primary", googleEventId, event)::execute)
                             .getHtmlLink();
                 }
                 throw e;
@@ -177,12 +179,12 @@ public class CalendarService {
             Date start = Date.from(minDate.minusDays(1).atZone(zoneId).toInstant());
             Date end = Date.from(maxDate.plusDays(1).atZone(zoneId).toInstant());
 
-            Events eventsResult = service.events().list("primary")
+            Calendar.Events.List request = service.events().list("primary")
                     .setTimeMin(new DateTime(start))
                     .setTimeMax(new DateTime(end))
                     .setSingleEvents(true)
-                    .setShowDeleted(false)
-                    .execute();
+                    .setShowDeleted(false);
+            Events eventsResult = downstreamLimiter.call(Downstream.GOOGLE_CALENDAR, request::execute);
 
             Set<String> googleEventIds = eventsResult.getItems().stream()
                     .map(Event::getId)
@@ -195,7 +197,7 @@ public class CalendarService {
                 order.setAlreadyAdded(exists);
             }
 
-        } catch (IOException | GeneralSecurityException e) {
+        } catch (IOException | GeneralSecurityException | DownstreamBusyException e) {
             log.error("Failed to fetch event status from calendar", e);
             orders.forEach(o -> o.setAlreadyAdded(false));
         }
@@ -0,0 +1,27 @@
+package com.example.drones.common;
+
+public record GeoBoundingBox(double minLatitude, double maxLatitude, double minLongitude, double maxLongitude) {
+
+    // Lower bound of the length of one degree of latitude, so the box never cuts into the radius.
+    private static final double MIN_KM_PER_LATITUDE_DEGREE = 110.574;
+    // On the sphere of GeoPoint.distanceTo; the larger equatorial 111.320 would cut the box short of the radius.
+    private static final double KM_PER_LONGITUDE_DEGREE_AT_EQUATOR = Math.toRadians(GeoPoint.EARTH_RADIUS_KM);
+
+    public static GeoBoundingBox around(GeoPoint center, double radiusKm) {
+        double latSpan = radiusKm / MIN_KM_PER_LATITUDE_DEGREE;
+        double minLat = Math.max(-90.0, center.latitude() - latSpan);
+        double maxLat = Math.min(90.0, center.latitude() + latSpan);
+
+        double poleward = Math.max(Math.abs(minLat), Math.abs(maxLat));
+        if (poleward >= 89.9) {
+            return new GeoBoundingBox(minLat, maxLat, -180.0, 180.0);
+        }
+        double lonSpan = radiusKm / (KM_PER_LONGITUDE_DEGREE_AT_EQUATOR * Math.cos(Math.toRadians(poleward)));
+        double minLon = center.longitude() - lonSpan;
+        double maxLon = center.longitude() + lonSpan;
+        if (minLon < -180.0 || maxLon > 180.0) {
+            return new GeoBoundingBox(minLat, maxLat, -180.0, 180.0);
+        }
+        return new GeoBoundingBox(minLat, maxLat, minLon, maxLon);
+    }
+}
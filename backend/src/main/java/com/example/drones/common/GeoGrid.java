@@ -0,0 +1,57 @@
+package com.example.drones.common;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Fixed latitude/longitude grid. A circle is covered by every cell its {@link GeoBoundingBox} touches, so the
+ * operators covering a point are always registered in that point's own cell.
+ */
+public final class GeoGrid {
+
+    private final double cellSizeDegrees;
+    private final int columns;
+
+    public GeoGrid(double cellSizeDegrees) {
+        if (cellSizeDegrees <= 0 || cellSizeDegrees > 90) {
+            throw new IllegalArgumentException("Grid cell size must be in (0, 90] degrees");
+        }
+        this.cellSizeDegrees = cellSizeDegrees;
+        this.columns = (int) Math.ceil(360.0 / cellSizeDegrees);
+    }
+
+    public long cellOf(GeoPoint point) {
+        return cellKey(row(point.latitude()), column(point.longitude()));
+    }
+
+    public List<Long> coveredCells(GeoPoint center, double radiusKm) {
+        GeoBoundingBox box = GeoBoundingBox.around(center, radiusKm);
+
+        int minRow = row(box.minLatitude());
+        int maxRow = row(box.maxLatitude());
+        int firstColumn = (int) Math.floor((box.minLongitude() + 180.0) / cellSizeDegrees);
+        int lastColumn = (int) Math.floor((box.maxLongitude() + 180.0) / cellSizeDegrees);
+        int columnCount = Math.min(lastColumn - firstColumn + 1, columns);
+
+        List<Long> cells = new ArrayList<>((maxRow - minRow + 1) * columnCount);
+        for (int r = minRow; r <= maxRow; r++) {
+            for (int c = 0; c < columnCount; c++) {
+                cells.add(cellKey(r, Math.floorMod(firstColumn + c, columns)));
+            }
+        }
+        return cells;
+    }
+
+    private int row(double latitude) {
+        double clamped = Math.max(-90.0, Math.min(90.0, latitude));
+        return (int) Math.floor((clamped + 90.0) / cellSizeDegrees);
+    }
+
+    private int column(double longitude) {
+        return Math.floorMod((int) Math.floor((longitude + 180.0) / cellSizeDegrees), columns);
+    }
+
+    private long cellKey(int row, int column) {
+        return (long) row * columns + column;
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.drones.common;
+
+public record GeoPoint(double latitude, double longitude) {
+
+    public static final double EARTH_RADIUS_KM = 6371.0;
+
+    public static GeoPoint parse(String coordinates) {
+        if (coordinates == null) {
+            throw new IllegalArgumentException("Invalid coordinates format");
+        }
+        String[] parts = coordinates.split(",");
+        if (parts.length != 2) {
+            throw new IllegalArgumentException("Invalid coordinates format");
+        }
+        double lat = Double.parseDouble(parts[0].trim());
+        double lon = Double.parseDouble(parts[1].trim());
+        return new GeoPoint(lat, lon);
+    }
+
+    public static GeoPoint tryParse(String coordinates) {
+        try {
+            return parse(coordinates);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Distance in kilometres between two {@code "lat, lon"} strings, or {@code null} when either is missing or malformed.
+     */
+    public static Double distanceBetween(String coordinates1, String coordinates2) {
+        GeoPoint from = tryParse(coordinates1);
+        GeoPoint to = tryParse(coordinates2);
+        return from == null || to == null ? null : from.distanceTo(to);
+    }
+
+    // Same spherical law of cosines as the SQL matching queries, so both sides agree on the radius boundary.
+    public double distanceTo(GeoPoint other) {
+        double lat1 = Math.toRadians(latitude);
+        double lat2 = Math.toRadians(other.latitude);
+        double cosine = Math.cos(lat1) * Math.cos(lat2) *
+                Math.cos(Math.toRadians(other.longitude) - Math.toRadians(longitude)) +
+                Math.sin(lat1) * Math.sin(lat2);
+        return EARTH_RADIUS_KM * Math.acos(Math.max(-1.0, Math.min(1.0, cosine)));
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.drones.common.concurrency;
+
+/**
+ * A dependency whose concurrency is capped by {@link DownstreamLimiter}.
+ */
+public enum Downstream {
+    /**
+     * Connections of background matching: the matching job workers and the expiry sweep.
+     */
+    MATCHING_DATABASE("matching-database"),
+    /**
+     * Connections of the notification outbox: leasing, recording outcomes and checking the daily quota.
+     */
+    NOTIFICATION_DATABASE("notification-database"),
+    SMTP("smtp"),
+    GCS("gcs"),
+    GOOGLE_CALENDAR("google-calendar");
+
+    private final String tag;
+
+    Downstream(String tag) {
+        this.tag = tag;
+    }
+
+    public String tag() {
+        return tag;
+    }
+}
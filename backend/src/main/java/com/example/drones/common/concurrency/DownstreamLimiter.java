@@ -0,0 +1,119 @@
+package com.example.drones.common.concurrency;
+
+import com.example.drones.common.config.exceptions.DownstreamBusyException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caps how many threads use each downstream dependency at once, so a burst of work cannot exhaust the connection
+ * pool or trip a provider's limits. Background matching and notification delivery draw database connections from
+ * separate permits, so a backlog of one cannot starve the other; together they should leave part of the pool to
+ * request handling. A caller that cannot get a permit within the acquire timeout fails with
+ * {@link DownstreamBusyException}.
+ */
+@Component
+public class DownstreamLimiter {
+
+    public static final String PREFIX = "downstream.";
+
+    private final Map<Downstream, Semaphore> permits = new EnumMap<>(Downstream.class);
+    private final Map<Downstream, Timer> acquireWait = new EnumMap<>(Downstream.class);
+    private final Map<Downstream, Counter> rejected = new EnumMap<>(Downstream.class);
+    private final Duration acquireTimeout;
+
+    public DownstreamLimiter(
+            MeterRegistry registry,
+            @Value("${app.downstream.matching-database.max-concurrency:4}") int matchingDatabase,
+            @Value("${app.downstream.notification-database.max-concurrency:2}") int notificationDatabase,
+            @Value("${app.downstream.smtp.max-concurrency:4}") int smtp,
+            @Value("${app.downstream.gcs.max-concurrency:8}") int gcs,
+            @Value("${app.downstream.google-calendar.max-concurrency:4}") int googleCalendar,
+            @Value("${app.downstream.acquire-timeout:PT30S}") Duration acquireTimeout
+    ) {
+        this.acquireTimeout = acquireTimeout;
+        register(registry, Downstream.MATCHING_DATABASE, matchingDatabase);
+        register(registry, Downstream.NOTIFICATION_DATABASE, notificationDatabase);
+        register(registry, Downstream.SMTP, smtp);
+        register(registry, Downstream.GCS, gcs);
+        register(registry, Downstream.GOOGLE_CALENDAR, googleCalendar);
+    }
+
+    private void register(MeterRegistry registry, Downstream downstream, int limit) {
+        Semaphore semaphore = new Semaphore(limit, true);
+        permits.put(downstream, semaphore);
+        Gauge.builder(PREFIX + "permits.limit", () -> limit)
+                .description("Threads allowed to use the downstream at once")
+                .tag("downstream", downstream.tag())
+                .register(registry);
+        Gauge.builder(PREFIX + "permits.in_use", semaphore, s -> limit - s.availablePermits())
+                .description("Threads currently using the downstream")
+                .tag("downstream", downstream.tag())
+                .register(registry);
+        Gauge.builder(PREFIX + "permits.waiting", semaphore, Semaphore::getQueueLength)
+                .description("Threads waiting for a permit to use the downstream")
+                .tag("downstream", downstream.tag())
+                .register(registry);
+        acquireWait.put(downstream, Timer.builder(PREFIX + "acquire.wait")
+                .description("Time spent waiting for a permit to use the downstream")
+                .tag("downstream", downstream.tag())
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(registry));
+        rejected.put(downstream, Counter.builder(PREFIX + "rejected")
+                .description("Calls that gave up waiting for a permit to use the downstream")
+                .tag("downstream", downstream.tag())
+                .register(registry));
+    }
+
+    public <T, E extends Exception> T call(Downstream downstream, LimitedCall<T, E> call) throws E {
+        Semaphore semaphore = permits.get(downstream);
+        acquire(downstream, semaphore);
+        try {
+            return call.call();
+        } finally {
+            semaphore.release();
+        }
+    }
+
+    public <E extends Exception> void run(Downstream downstream, LimitedRun<E> run) throws E {
+        call(downstream, () -> {
+            run.run();
+            return null;
+        });
+    }
+
+    private void acquire(Downstream downstream, Semaphore semaphore) {
+        long start = System.nanoTime();
+        boolean acquired;
+        try {
+            acquired = semaphore.tryAcquire(acquireTimeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        acquireWait.get(downstream).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        if (!acquired) {
+            rejected.get(downstream).increment();
+            throw new DownstreamBusyException(downstream.tag());
+        }
+    }
+
+    @FunctionalInterface
+    public interface LimitedCall<T, E extends Exception> {
+        T call() throws E;
+    }
+
+    @FunctionalInterface
+    public interface LimitedRun<E extends Exception> {
+        void run() throws E;
+    }
+}
@@ -0,0 +1,144 @@
+package com.example.drones.common.concurrency;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Delayed;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Saturation meters of the application's own executors, named {@code tasks.*} and tagged with the executor name
+ * and the type of work it runs. Each executor has to be instrumented before it is initialized, because the
+ * rejection handler cannot be swapped afterwards.
+ */
+@Component
+@RequiredArgsConstructor
+public class ExecutorMetrics {
+
+    public static final String PREFIX = "tasks.";
+    public static final String ACTIVE = PREFIX + "active";
+    public static final String QUEUED = PREFIX + "queued";
+    public static final String WAIT = PREFIX + "wait";
+    public static final String EXECUTION = PREFIX + "execution";
+    public static final String REJECTED = PREFIX + "rejected";
+
+    public static final String EXECUTOR_TAG = "executor";
+    public static final String TYPE_TAG = "type";
+
+    private static final double[] PERCENTILES = {0.5, 0.95, 0.99};
+
+    private final MeterRegistry registry;
+
+    public void instrument(ThreadPoolTaskExecutor executor, String name, String type) {
+        TaskMeters meters = new TaskMeters(name, type, () -> executor.getThreadPoolExecutor().getQueue().size());
+        executor.setTaskDecorator(meters);
+        executor.setRejectedExecutionHandler(meters.countingRejections(new ThreadPoolExecutor.AbortPolicy()));
+    }
+
+    /**
+     * Counts only tasks that are due but not yet running as queued; periodic tasks sit in the scheduler's queue
+     * between runs. Callers decorate the tasks they schedule with the returned meters.
+     */
+    public TaskMeters instrument(ThreadPoolTaskScheduler scheduler, String name, String type) {
+        TaskMeters meters = new TaskMeters(name, type, () -> dueTasks(scheduler));
+        scheduler.setRejectedExecutionHandler(meters.countingRejections(new ThreadPoolExecutor.AbortPolicy()));
+        return meters;
+    }
+
+    private static int dueTasks(ThreadPoolTaskScheduler scheduler) {
+        ScheduledThreadPoolExecutor executor;
+        try {
+            executor = scheduler.getScheduledThreadPoolExecutor();
+        } catch (IllegalStateException notInitialized) {
+            return 0;
+        }
+        int due = 0;
+        for (Runnable task : executor.getQueue()) {
+            if (task instanceof Delayed delayed && delayed.getDelay(TimeUnit.NANOSECONDS) <= 0) {
+                due++;
+            }
+        }
+        return due;
+    }
+
+    /**
+     * Meters of one executor. As a decorator it times how long each task waited for a thread and how long it ran;
+     * a periodic task only reports its wait on the first run.
+     */
+    public final class TaskMeters implements TaskDecorator {
+
+        private final AtomicInteger active = new AtomicInteger();
+        private final Timer wait;
+        private final Timer execution;
+        private final Counter rejected;
+
+        private TaskMeters(String name, String type, Supplier<Number> queued) {
+            Gauge.builder(ACTIVE, active, AtomicInteger::get)
+                    .description("Tasks currently running on the executor")
+                    .tag(EXECUTOR_TAG, name)
+                    .tag(TYPE_TAG, type)
+                    .register(registry);
+            Gauge.builder(QUEUED, queued)
+                    .description("Tasks waiting for a thread of the executor")
+                    .tag(EXECUTOR_TAG, name)
+                    .tag(TYPE_TAG, type)
+                    .register(registry);
+            wait = Timer.builder(WAIT)
+                    .description("Time from submitting a task until a thread of the executor started it")
+                    .tag(EXECUTOR_TAG, name)
+                    .tag(TYPE_TAG, type)
+                    .publishPercentiles(PERCENTILES)
+                    .register(registry);
+            execution = Timer.builder(EXECUTION)
+                    .description("Time a task ran on the executor")
+                    .tag(EXECUTOR_TAG, name)
+                    .tag(TYPE_TAG, type)
+                    .publishPercentiles(PERCENTILES)
+                    .register(registry);
+            rejected = Counter.builder(REJECTED)
+                    .description("Tasks the executor refused because it was full or shutting down")
+                    .tag(EXECUTOR_TAG, name)
+                    .tag(TYPE_TAG, type)
+                    .register(registry);
+        }
+
+        @Override
+        public Runnable decorate(Runnable task) {
+            long submittedAt = System.nanoTime();
+            boolean[] started = {false};
+            return () -> {
+                long startedAt = System.nanoTime();
+                if (!started[0]) {
+                    started[0] = true;
+                    wait.record(startedAt - submittedAt, TimeUnit.NANOSECONDS);
+                }
+                active.incrementAndGet();
+                try {
+                    task.run();
+                } finally {
+                    active.decrementAndGet();
+                    execution.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+                }
+            };
+        }
+
+        private RejectedExecutionHandler countingRejections(RejectedExecutionHandler delegate) {
+            return (task, executor) -> {
+                rejected.increment();
+                delegate.rejectedExecution(task, executor);
+            };
+        }
+    }
+}
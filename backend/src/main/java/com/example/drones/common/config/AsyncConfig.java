@@ -1,23 +1,32 @@
 package com.example.drones.common.config;
 
+import com.example.drones.common.concurrency.ExecutorMetrics;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
-import java.util.concurrent.Executor;
-
 @Configuration
-@EnableAsync
 public class AsyncConfig {
 
-    @Bean(name = "taskExecutor")
-    public Executor taskExecutor() {
+    /**
+     * Sends notifications right after they are committed. It is kept apart from every other executor, so email
+     * latency cannot hold up matching. A full queue rejects the task; the notifications are already in the outbox
+     * and the notification workers send them instead.
+     */
+    @Bean(name = "notificationExecutor")
+    public ThreadPoolTaskExecutor notificationExecutor(
+            @Value("${app.notifications.executor.pool-size:2}") int poolSize,
+            @Value("${app.notifications.executor.queue-capacity:50}") int queueCapacity,
+            ExecutorMetrics executorMetrics
+    ) {
         ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
-        executor.setCorePoolSize(2);
-        executor.setMaxPoolSize(10);
-        executor.setQueueCapacity(100);
-        executor.setThreadNamePrefix("async-");
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("notification-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executorMetrics.instrument(executor, "notification", "email");
         executor.initialize();
         return executor;
     }
@@ -0,0 +1,17 @@
+package com.example.drones.common.config;
+
+import com.example.drones.common.GeoGrid;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+class GeoGridConfiguration {
+    // Shared by the in-memory operator index and the operator_coverage_cells table; changing it, or the way
+    // GeoGrid covers a radius, requires emptying that table (dataBaseScripts/rebuildOperatorCoverageCells.sql),
+    // which is then rebuilt on startup.
+    @Bean
+    public GeoGrid geoGrid(@Value("${app.matching.grid-cell-size-degrees:0.25}") double cellSizeDegrees) {
+        return new GeoGrid(cellSizeDegrees);
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.drones.common.config.exceptions;
+
+import org.springframework.http.HttpStatus;
+
+public class DownstreamBusyException extends AppException {
+    public DownstreamBusyException(String downstream) {
+        super("Too many concurrent requests to " + downstream + ", try again later", HttpStatus.SERVICE_UNAVAILABLE);
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.drones.common.pubsub;
+
+public interface ChannelListener {
+
+    void onNotification(String payload);
+
+    /**
+     * Called each time the channel is listened to, at startup and again after every lost connection.
+     * Notifications sent while nobody listened are lost, so anything derived from them has to be reloaded here.
+     */
+    void onListening();
+}
@@ -0,0 +1,149 @@
+package com.example.drones.common.pubsub;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.JdbcConnectionDetails;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Postgres LISTEN/NOTIFY channels, for messages every node of the application has to see. One virtual thread
+ * listens on all channels and hands each notification to the listener of its channel.
+ * <p>
+ * Postgres delivers a notification only when the transaction that sent it commits, so rolled back changes are
+ * never announced, and identical notifications sent in one transaction are delivered once.
+ * <p>
+ * The listening thread holds its connection for as long as the application runs, so it opens one of its own with
+ * the pool's connection details instead of taking one out of the pool. The database therefore has to accept one
+ * connection per node more than the pool size.
+ */
+@Component
+@Slf4j
+public class DatabaseChannels {
+
+    private final JdbcConnectionDetails connectionDetails;
+    private final JdbcTemplate jdbcTemplate;
+    private final Map<String, ChannelListener> listeners = new ConcurrentHashMap<>();
+    private volatile boolean running;
+    private volatile Thread listener;
+
+    @Value("${app.pubsub.poll-timeout:PT1S}")
+    private Duration pollTimeout;
+
+    @Value("${app.pubsub.reconnect-delay:PT5S}")
+    private Duration reconnectDelay;
+
+    public DatabaseChannels(JdbcConnectionDetails connectionDetails, JdbcTemplate jdbcTemplate) {
+        this.connectionDetails = connectionDetails;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Must be called before the application is ready, i.e. from the constructor of the listener's owner.
+     * The channel name has to be a plain SQL identifier.
+     */
+    public void listen(String channel, ChannelListener channelListener) {
+        listeners.put(channel, channelListener);
+    }
+
+    /**
+     * Sends the payloads in the current transaction, in a single round trip.
+     */
+    public void send(String channel, String... payloads) {
+        if (payloads.length == 0) {
+            return;
+        }
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(
+                    "SELECT pg_notify(?, payload) FROM unnest(CAST(? AS text[])) AS payload");
+            statement.setString(1, channel);
+            statement.setArray(2, connection.createArrayOf("text", payloads));
+            return statement;
+        }, resultSet -> null);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        running = true;
+        listener = Thread.ofVirtual().name("db-channels").start(this::listenLoop);
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        Thread thread = listener;
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    @SuppressFBWarnings(value = "SQL_NONCONSTANT_STRING_PASSED_TO_EXECUTE", justification = "Channel names are fixed identifiers chosen by the listeners")
+    private void listenLoop() {
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(
+                    connectionDetails.getJdbcUrl(), connectionDetails.getUsername(), connectionDetails.getPassword())) {
+                connection.setAutoCommit(true);
+                try (Statement statement = connection.createStatement()) {
+                    for (String channel : listeners.keySet()) {
+                        statement.execute("LISTEN " + channel);
+                    }
+                }
+                listeners.forEach(this::announceListening);
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications((int) pollTimeout.toMillis());
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            deliver(notification);
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                if (!running) {
+                    return;
+                }
+                log.warn("Database channel listener lost its connection, reconnecting in {}", reconnectDelay, e);
+                try {
+                    Thread.sleep(reconnectDelay);
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private void announceListening(String channel, ChannelListener channelListener) {
+        try {
+            channelListener.onListening();
+        } catch (RuntimeException e) {
+            log.warn("Listener of channel {} failed to catch up after listening", channel, e);
+        }
+    }
+
+    private void deliver(PGNotification notification) {
+        ChannelListener channelListener = listeners.get(notification.getName());
+        if (channelListener == null) {
+            return;
+        }
+        try {
+            channelListener.onNotification(notification.getParameter());
+        } catch (RuntimeException e) {
+            log.warn("Listener of channel {} failed to handle a notification", notification.getName(), e);
+        }
+    }
+}
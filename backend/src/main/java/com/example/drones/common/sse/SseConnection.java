@@ -0,0 +1,90 @@
+package com.example.drones.common.sse;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One open event stream. Publishers only put events into a small bounded buffer; a virtual thread owned by the
+ * connection is the only one writing to the response, so a slow client never holds up a publisher. An idle
+ * connection costs a parked virtual thread and its buffer.
+ */
+@Slf4j
+final class SseConnection {
+
+    private final SseHub hub;
+    private final UUID subscriberId;
+    private final SseEmitter emitter;
+    private final BlockingQueue<SseEvent> buffer;
+    private final long heartbeatMillis;
+    private volatile Thread writer;
+    private volatile boolean closed;
+
+    SseConnection(SseHub hub, UUID subscriberId, SseEmitter emitter, int bufferSize, Duration heartbeat) {
+        this.hub = hub;
+        this.subscriberId = subscriberId;
+        this.emitter = emitter;
+        this.buffer = new ArrayBlockingQueue<>(bufferSize);
+        this.heartbeatMillis = heartbeat.toMillis();
+    }
+
+    UUID subscriberId() {
+        return subscriberId;
+    }
+
+    void start(String threadName) {
+        writer = Thread.ofVirtual().name(threadName).start(this::write);
+    }
+
+    /**
+     * Buffers an event without blocking. When the client has fallen so far behind that the buffer is full, the
+     * buffered events are replaced by a single resync event, which tells the client to reload over REST.
+     *
+     * @return false when the buffer overflowed
+     */
+    synchronized boolean offer(SseEvent event) {
+        if (buffer.offer(event)) {
+            return true;
+        }
+        buffer.clear();
+        buffer.offer(SseEvent.RESYNC);
+        return false;
+    }
+
+    void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        hub.remove(this);
+        Thread thread = writer;
+        if (thread != null && thread != Thread.currentThread()) {
+            thread.interrupt();
+        }
+    }
+
+    private void write() {
+        try {
+            while (!closed) {
+                SseEvent event = buffer.poll(heartbeatMillis, TimeUnit.MILLISECONDS);
+                // Heartbeats keep proxies from closing an idle stream and reveal clients that went away.
+                emitter.send(event == null
+                        ? SseEmitter.event().comment("heartbeat")
+                        : SseEmitter.event().name(event.name()).data(event.data()));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException | IllegalStateException e) {
+            log.debug("Event stream of {} closed: {}", subscriberId, e.getMessage());
+            emitter.completeWithError(e);
+        } finally {
+            close();
+        }
+    }
+}
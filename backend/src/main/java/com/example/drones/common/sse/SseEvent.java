@@ -0,0 +1,12 @@
+package com.example.drones.common.sse;
+
+/**
+ * A named event; the data is serialized to JSON when it is written to the stream.
+ */
+public record SseEvent(String name, Object data) {
+
+    /**
+     * Sent in place of events a client was too slow to receive. The client should reload its state over REST.
+     */
+    public static final SseEvent RESYNC = new SseEvent("resync", "");
+}
@@ -0,0 +1,191 @@
+package com.example.drones.common.sse;
+
+import com.example.drones.common.pubsub.ChannelListener;
+import com.example.drones.common.pubsub.DatabaseChannels;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Fans events out to every node through {@link DatabaseChannels}, so an event reaches a user's stream whichever node
+ * it is open on. Each hub gets its own channel, named {@code sse_<hub channel>}, and events of rolled back changes
+ * are never seen. A notification's payload is {@code <subscriber id> <event name> <json data>}.
+ * <p>
+ * Every node records in {@code sse_subscribers} which users have a stream open on it, and events are only sent to
+ * users found there, so changes nobody is watching cost no notifications. The records are refreshed periodically;
+ * those of a node that stopped refreshing them expire.
+ */
+@Component
+@Slf4j
+public class SseEventRelay {
+
+    // Postgres rejects notification payloads of 8000 bytes or more.
+    private static final int MAX_PAYLOAD_BYTES = 7999;
+
+    private final DatabaseChannels databaseChannels;
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final UUID nodeId = UUID.randomUUID();
+    private final Map<String, SseHub> hubs = new ConcurrentHashMap<>();
+
+    @Value("${app.events.presence.ttl:PT3M}")
+    private Duration presenceTtl;
+
+    public SseEventRelay(DatabaseChannels databaseChannels, JdbcTemplate jdbcTemplate, ObjectMapper objectMapper) {
+        this.databaseChannels = databaseChannels;
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Must be called before the application is ready, i.e. from the constructor of the hub's owner.
+     */
+    public void register(SseHub hub) {
+        String channel = channelOf(hub);
+        hubs.put(hub.channel(), hub);
+        hub.trackPresence(new SseHub.Presence() {
+            @Override
+            public void joined(UUID subscriberId) {
+                updatePresence(hub, List.of(subscriberId));
+            }
+
+            @Override
+            public void left(UUID subscriberId) {
+                try {
+                    jdbcTemplate.update("DELETE FROM sse_subscribers WHERE channel = ? AND subscriber_id = ? AND node_id = ?",
+                            hub.channel(), subscriberId, nodeId);
+                } catch (DataAccessException e) {
+                    log.warn("Could not record that {} closed their {} stream; the record expires instead", subscriberId, hub.channel(), e);
+                }
+            }
+        });
+        databaseChannels.listen(channel, new ChannelListener() {
+            @Override
+            public void onNotification(String payload) {
+                deliver(hub, channel, payload);
+            }
+
+            @Override
+            public void onListening() {
+                hub.resyncAll();
+            }
+        });
+    }
+
+    /**
+     * Sends the event in the current transaction. Events too large for a notification are replaced by a resync
+     * event, which makes the client reload over REST.
+     */
+    public void publish(SseHub hub, UUID subscriberId, String event, Object data) {
+        publishAll(hub, event, List.of(subscriberId), List.of(data));
+    }
+
+    /**
+     * Sends one event per subscriber, with the data at the same position, in a single round trip. Subscribers without
+     * an open stream on any node are skipped.
+     */
+    public void publishAll(SseHub hub, String event, List<UUID> subscriberIds, List<?> data) {
+        if (subscriberIds.isEmpty()) {
+            return;
+        }
+        String[] payloads = new String[subscriberIds.size()];
+        for (int i = 0; i < payloads.length; i++) {
+            String payload = subscriberIds.get(i) + " " + event + " " + toJson(data.get(i));
+            if (payload.getBytes(StandardCharsets.UTF_8).length > MAX_PAYLOAD_BYTES) {
+                payload = subscriberIds.get(i) + " " + SseEvent.RESYNC.name() + " ";
+            }
+            payloads[i] = payload;
+        }
+        // Like DatabaseChannels.send, but joined with the subscribers that are connected somewhere.
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement("""
+                    SELECT pg_notify(?, e.payload)
+                    FROM unnest(CAST(? AS uuid[]), CAST(? AS text[])) AS e(subscriber_id, payload)
+                    WHERE EXISTS (SELECT 1
+                                  FROM sse_subscribers s
+                                  WHERE s.channel = ?
+                                    AND s.subscriber_id = e.subscriber_id)
+                    """);
+            statement.setString(1, channelOf(hub));
+            statement.setArray(2, connection.createArrayOf("uuid", subscriberIds.toArray()));
+            statement.setArray(3, connection.createArrayOf("text", payloads));
+            statement.setString(4, hub.channel());
+            return statement;
+        }, resultSet -> null);
+    }
+
+    /**
+     * Refreshes the records of every stream open on this node, restoring any a failed write lost, and drops the
+     * records other nodes stopped refreshing.
+     */
+    @Scheduled(fixedDelayString = "${app.events.presence.refresh:PT1M}", initialDelayString = "${app.events.presence.refresh:PT1M}")
+    public void refreshPresence() {
+        try {
+            hubs.values().forEach(hub -> updatePresence(hub, List.copyOf(hub.subscriberIds())));
+            jdbcTemplate.update("DELETE FROM sse_subscribers WHERE last_seen < now() - CAST(? AS interval)",
+                    presenceTtl.toSeconds() + " seconds");
+        } catch (DataAccessException e) {
+            log.warn("Could not refresh the open event streams of this node", e);
+        }
+    }
+
+    private void updatePresence(SseHub hub, List<UUID> subscriberIds) {
+        if (subscriberIds.isEmpty()) {
+            return;
+        }
+        try {
+            jdbcTemplate.update(connection -> {
+                PreparedStatement statement = connection.prepareStatement("""
+                        INSERT INTO sse_subscribers (channel, subscriber_id, node_id, last_seen)
+                        SELECT ?, subscriber_id, ?, now()
+                        FROM unnest(CAST(? AS uuid[])) AS subscriber_id
+                        ON CONFLICT (channel, subscriber_id, node_id) DO UPDATE SET last_seen = now()
+                        """);
+                statement.setString(1, hub.channel());
+                statement.setObject(2, nodeId);
+                statement.setArray(3, connection.createArrayOf("uuid", subscriberIds.toArray()));
+                return statement;
+            });
+        } catch (DataAccessException e) {
+            log.warn("Could not record the open {} streams of {}; the next refresh retries", hub.channel(), subscriberIds, e);
+        }
+    }
+
+    private void deliver(SseHub hub, String channel, String payload) {
+        String[] parts = payload.split(" ", 3);
+        try {
+            if (parts.length == 3) {
+                hub.publish(UUID.fromString(parts[0]), new SseEvent(parts[1], parts[2]));
+                return;
+            }
+        } catch (IllegalArgumentException e) {
+            // Falls through to the warning below.
+        }
+        log.warn("Ignoring malformed event notification on {}", channel);
+    }
+
+    private static String channelOf(SseHub hub) {
+        return "sse_" + hub.channel();
+    }
+
+    private String toJson(Object data) {
+        try {
+            return objectMapper.writeValueAsString(data);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize event data " + data.getClass().getSimpleName(), e);
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.drones.common.sse;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The open event streams of one channel on this node, keyed by the user they belong to. A user may have several
+ * streams open, e.g. one per browser tab, and each receives every event. Events are published through
+ * {@link SseEventRelay}, which delivers them to the hub of every node.
+ */
+public class SseHub {
+
+    /**
+     * Told when a user opens their first stream on this node and closes their last one.
+     */
+    interface Presence {
+        Presence NONE = new Presence() {
+            @Override
+            public void joined(UUID subscriberId) {
+            }
+
+            @Override
+            public void left(UUID subscriberId) {
+            }
+        };
+
+        void joined(UUID subscriberId);
+
+        void left(UUID subscriberId);
+    }
+
+    private final String channel;
+    private final int bufferSize;
+    private final Duration heartbeat;
+    private final Duration timeout;
+    private final ConcurrentMap<UUID, Set<SseConnection>> connections = new ConcurrentHashMap<>();
+    private final AtomicInteger open = new AtomicInteger();
+    private final AtomicInteger threadSequence = new AtomicInteger();
+    private final Counter overflows;
+    private volatile Presence presence = Presence.NONE;
+
+    public SseHub(String channel, int bufferSize, Duration heartbeat, Duration timeout, MeterRegistry registry) {
+        this.channel = channel;
+        this.bufferSize = bufferSize;
+        this.heartbeat = heartbeat;
+        this.timeout = timeout;
+        Gauge.builder("sse.connections", open, AtomicInteger::get)
+                .description("Open event streams")
+                .tag("channel", channel)
+                .register(registry);
+        overflows = Counter.builder("sse.overflows")
+                .description("Events dropped because a client read its stream too slowly, replaced by a resync event")
+                .tag("channel", channel)
+                .register(registry);
+    }
+
+    public SseEmitter subscribe(UUID subscriberId) {
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        SseConnection connection = new SseConnection(this, subscriberId, emitter, bufferSize, heartbeat);
+        emitter.onCompletion(connection::close);
+        emitter.onTimeout(() -> {
+            connection.close();
+            emitter.complete();
+        });
+        emitter.onError(error -> connection.close());
+        boolean[] joined = {false};
+        connections.compute(subscriberId, (id, subscribed) -> {
+            if (subscribed == null) {
+                subscribed = ConcurrentHashMap.newKeySet();
+                joined[0] = true;
+            }
+            subscribed.add(connection);
+            return subscribed;
+        });
+        open.incrementAndGet();
+        if (joined[0]) {
+            presence.joined(subscriberId);
+        }
+        connection.start("sse-" + channel + "-" + threadSequence.incrementAndGet());
+        return emitter;
+    }
+
+    public boolean isSubscribed(UUID subscriberId) {
+        return connections.containsKey(subscriberId);
+    }
+
+    Set<UUID> subscriberIds() {
+        return Set.copyOf(connections.keySet());
+    }
+
+    void trackPresence(Presence presence) {
+        this.presence = presence;
+    }
+
+    public void publish(UUID subscriberId, SseEvent event) {
+        Set<SseConnection> subscribed = connections.get(subscriberId);
+        if (subscribed == null) {
+            return;
+        }
+        for (SseConnection connection : subscribed) {
+            if (!connection.offer(event)) {
+                overflows.increment();
+            }
+        }
+    }
+
+    /**
+     * Tells every open stream to reload, e.g. after events may have been lost.
+     */
+    public void resyncAll() {
+        connections.values().forEach(subscribed -> subscribed.forEach(connection -> connection.offer(SseEvent.RESYNC)));
+    }
+
+    public String channel() {
+        return channel;
+    }
+
+    void remove(SseConnection connection) {
+        boolean[] left = {false};
+        connections.computeIfPresent(connection.subscriberId(), (id, subscribed) -> {
+            if (subscribed.remove(connection)) {
+                open.decrementAndGet();
+            }
+            left[0] = subscribed.isEmpty();
+            return left[0] ? null : subscribed;
+        });
+        if (left[0]) {
+            presence.left(connection.subscriberId());
+        }
+    }
+}
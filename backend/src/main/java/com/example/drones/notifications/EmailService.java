@@ -0,0 +1,176 @@
+package com.example.drones.notifications;
+
+import com.example.drones.common.concurrency.Downstream;
+import com.example.drones.common.concurrency.DownstreamLimiter;
+import com.example.drones.common.config.exceptions.DownstreamBusyException;
+import jakarta.mail.internet.MimeMessage;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMailMessage;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+import static com.example.drones.notifications.NotificationMessage.*;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class EmailService {
+    private final JavaMailSender mailSender;
+    private final EmailTemplates emailTemplates;
+    private final DownstreamLimiter downstreamLimiter;
+
+    // Templates are compiled once, so equal keys mean the same template of the same locale. The order's values are
+    // part of the key, since notifications of one order enqueued before and after an edit carry different snapshots.
+    private record SharedPartKey(NotificationTemplate template, Map<String, String> orderValues) {
+    }
+
+    private static final Set<String> RECIPIENT_VALUES = Set.of(RECIPIENT_NAME, LOCALE);
+
+    @Value("${app.frontend_url}")
+    private String frontendUrl;
+
+    @Value("${app.notifications.digest.enabled:false}")
+    private boolean digestEnabled;
+
+    /**
+     * Renders the notifications and sends them over a single SMTP session, instead of paying connect, STARTTLS
+     * and auth for every message. A message that fails does not stop the others. In digest mode all new order
+     * notifications of one recipient go out as a single message listing every order.
+     *
+     * @return the failure of each notification that was not sent, keyed by notification id
+     */
+    public Map<Long, Exception> sendAll(List<NotificationEntity> notifications) {
+        Map<Long, Exception> failures = new HashMap<>();
+        // MimeMessage keeps identity equality, and insertion order keeps the send order.
+        Map<MimeMessage, List<NotificationEntity>> rendered = new LinkedHashMap<>();
+        Map<SharedPartKey, String> sharedParts = new HashMap<>();
+        for (List<NotificationEntity> envelope : envelopes(notifications)) {
+            try {
+                rendered.put(render(envelope, sharedParts), envelope);
+            } catch (MailException e) {
+                envelope.forEach(notification -> failures.put(notification.getId(), e));
+            }
+        }
+        if (rendered.isEmpty()) {
+            return failures;
+        }
+
+        try {
+            MimeMessage[] messages = rendered.keySet().toArray(MimeMessage[]::new);
+            downstreamLimiter.run(Downstream.SMTP, () -> mailSender.send(messages));
+        } catch (MailSendException e) {
+            if (e.getFailedMessages().isEmpty()) {
+                rendered.values().forEach(envelope -> envelope.forEach(notification -> failures.put(notification.getId(), e)));
+            } else {
+                e.getFailedMessages().forEach((message, error) ->
+                        rendered.get((MimeMessage) message).forEach(notification -> failures.put(notification.getId(), error)));
+            }
+        } catch (MailException | DownstreamBusyException e) {
+            rendered.values().forEach(envelope -> envelope.forEach(notification -> failures.put(notification.getId(), e)));
+        }
+        log.info("Sent {} of {} notifications in {} emails over one SMTP session",
+                notifications.size() - failures.size(), notifications.size(), rendered.size());
+        return failures;
+    }
+
+    private List<List<NotificationEntity>> envelopes(List<NotificationEntity> notifications) {
+        List<List<NotificationEntity>> envelopes = new ArrayList<>();
+        Map<String, List<NotificationEntity>> digests = new LinkedHashMap<>();
+        for (NotificationEntity notification : notifications) {
+            if (digestEnabled && notification.getType() == NotificationType.NEW_ORDER) {
+                digests.computeIfAbsent(notification.getRecipientEmail(), recipient -> {
+                    List<NotificationEntity> digest = new ArrayList<>();
+                    envelopes.add(digest);
+                    return digest;
+                }).add(notification);
+            } else {
+                envelopes.add(List.of(notification));
+            }
+        }
+        return envelopes;
+    }
+
+    private MimeMessage render(List<NotificationEntity> envelope, Map<SharedPartKey, String> sharedParts) {
+        NotificationEntity first = envelope.get(0);
+        Map<String, String> payload = first.getPayload();
+        Locale locale = localeOf(payload);
+
+        String subject;
+        StringBuilder body = new StringBuilder(512);
+        if (envelope.size() > 1) {
+            NotificationTemplate digest = emailTemplates.get(EmailTemplates.NEW_ORDER_DIGEST, locale);
+            NotificationTemplate item = emailTemplates.get(EmailTemplates.NEW_ORDER_DIGEST_ITEM, locale);
+            StringBuilder orders = new StringBuilder(envelope.size() * 160);
+            for (NotificationEntity notification : envelope) {
+                orders.append(sharedPart(item, notification.getPayload(), sharedParts));
+            }
+            Function<String, String> values = slot -> switch (slot) {
+                case "count" -> String.valueOf(envelope.size());
+                case "orders" -> orders.toString();
+                default -> value(payload, slot);
+            };
+            subject = digest.subject().render(values);
+            digest.greeting().renderTo(body, values);
+            digest.body().renderTo(body, values);
+        } else {
+            NotificationTemplate template = emailTemplates.get(first.getType(), locale);
+            subject = template.subject().render(slot -> value(payload, slot));
+            template.greeting().renderTo(body, slot -> value(payload, slot));
+            body.append(sharedPart(template, payload, sharedParts));
+        }
+
+        SimpleMailMessage message = new SimpleMailMessage();
+        message.setTo(first.getRecipientEmail());
+        message.setSubject(subject);
+        message.setText(body.toString());
+        MimeMessage mimeMessage = mailSender.createMimeMessage();
+        message.copyTo(new MimeMailMessage(mimeMessage));
+        return mimeMessage;
+    }
+
+    /**
+     * The recipient-independent part of a template, rendered once per order snapshot and template within a batch, so
+     * a fan-out of one order to many operators renders it a single time.
+     */
+    private String sharedPart(NotificationTemplate template, Map<String, String> payload, Map<SharedPartKey, String> sharedParts) {
+        if (payload.get(ORDER_ID) == null) {
+            return template.body().render(slot -> value(payload, slot));
+        }
+        Map<String, String> orderValues = new HashMap<>(payload);
+        orderValues.keySet().removeAll(RECIPIENT_VALUES);
+        return sharedParts.computeIfAbsent(new SharedPartKey(template, orderValues),
+                key -> template.body().render(slot -> value(payload, slot)));
+    }
+
+    private String value(Map<String, String> payload, String slot) {
+        return switch (slot) {
+            case "frontendUrl" -> frontendUrl;
+            case "mapsUrl" -> buildGoogleMapsUrl(payload.get(COORDINATES));
+            default -> payload.get(slot);
+        };
+    }
+
+    private static Locale localeOf(Map<String, String> payload) {
+        String tag = payload.get(LOCALE);
+        return tag == null ? EmailTemplates.DEFAULT_LOCALE : Locale.forLanguageTag(tag);
+    }
+
+    private String buildGoogleMapsUrl(String coordinates) {
+        String cleanCoords = coordinates.trim().replace(" ", "");
+        return "https://www.google.com/maps/search/?api=1&query=" + cleanCoords;
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.drones.notifications;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A template parsed once into literal text and {@code {{name}}} slots, so rendering is a single pass of appends
+ * into a buffer sized up front. Missing values render as empty text.
+ */
+public final class EmailTemplate {
+
+    private static final Pattern SLOT = Pattern.compile("\\{\\{\\s*([A-Za-z]+)\\s*}}");
+    private static final int SLOT_SIZE_HINT = 24;
+
+    private final String[] literals;
+    private final String[] slots;
+    private final int literalLength;
+
+    private EmailTemplate(String[] literals, String[] slots) {
+        this.literals = literals;
+        this.slots = slots;
+        int length = 0;
+        for (String literal : literals) {
+            length += literal.length();
+        }
+        this.literalLength = length;
+    }
+
+    public static EmailTemplate compile(String source) {
+        List<String> literals = new ArrayList<>();
+        List<String> slots = new ArrayList<>();
+        Matcher matcher = SLOT.matcher(source);
+        int start = 0;
+        while (matcher.find()) {
+            literals.add(source.substring(start, matcher.start()));
+            slots.add(matcher.group(1));
+            start = matcher.end();
+        }
+        literals.add(source.substring(start));
+        return new EmailTemplate(literals.toArray(String[]::new), slots.toArray(String[]::new));
+    }
+
+    public boolean uses(String slot) {
+        for (String name : slots) {
+            if (name.equals(slot)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public String render(Function<String, String> values) {
+        StringBuilder out = new StringBuilder(literalLength + slots.length * SLOT_SIZE_HINT);
+        renderTo(out, values);
+        return out.toString();
+    }
+
+    public void renderTo(StringBuilder out, Function<String, String> values) {
+        for (int i = 0; i < slots.length; i++) {
+            out.append(literals[i]);
+            String value = values.apply(slots[i]);
+            if (value != null) {
+                out.append(value);
+            }
+        }
+        out.append(literals[slots.length]);
+    }
+}
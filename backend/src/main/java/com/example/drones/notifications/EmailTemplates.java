@@ -0,0 +1,77 @@
+package com.example.drones.notifications;
+
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Every email template, compiled once when the application starts. Templates live in
+ * {@code email-templates/<language tag>/<name>.txt}; a locale without its own variant of a template falls back
+ * to its language and then to Polish.
+ */
+@Component
+public class EmailTemplates {
+
+    public static final Locale DEFAULT_LOCALE = Locale.forLanguageTag("pl");
+
+    static final String NEW_ORDER_DIGEST = "new_order_digest";
+    static final String NEW_ORDER_DIGEST_ITEM = "new_order_digest_item";
+
+    private static final String LOCATION = "classpath*:email-templates/*/*.txt";
+
+    private final Map<String, Map<String, NotificationTemplate>> templatesByLocale = new HashMap<>();
+
+    public EmailTemplates() {
+        try {
+            for (Resource resource : new PathMatchingResourcePatternResolver().getResources(LOCATION)) {
+                String path = resource.getURL().getPath();
+                String fileName = resource.getFilename();
+                String directory = path.substring(0, path.lastIndexOf('/'));
+                String locale = directory.substring(directory.lastIndexOf('/') + 1);
+                String name = fileName.substring(0, fileName.length() - ".txt".length());
+                String source = resource.getContentAsString(StandardCharsets.UTF_8);
+                templatesByLocale.computeIfAbsent(locale, key -> new HashMap<>())
+                        .put(name, NotificationTemplate.parse(locale + "/" + name, source));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot load email templates", e);
+        }
+
+        for (NotificationType type : NotificationType.values()) {
+            requireDefault(nameOf(type));
+        }
+        requireDefault(NEW_ORDER_DIGEST);
+        requireDefault(NEW_ORDER_DIGEST_ITEM);
+    }
+
+    private void requireDefault(String name) {
+        if (!templatesByLocale.getOrDefault(DEFAULT_LOCALE.toLanguageTag(), Map.of()).containsKey(name)) {
+            throw new IllegalStateException("Missing default email template " + DEFAULT_LOCALE.toLanguageTag() + "/" + name);
+        }
+    }
+
+    static String nameOf(NotificationType type) {
+        return type.name().toLowerCase(Locale.ROOT);
+    }
+
+    public NotificationTemplate get(NotificationType type, Locale locale) {
+        return get(nameOf(type), locale);
+    }
+
+    public NotificationTemplate get(String name, Locale locale) {
+        for (String tag : new String[]{locale.toLanguageTag(), locale.getLanguage()}) {
+            NotificationTemplate template = templatesByLocale.getOrDefault(tag, Map.of()).get(name);
+            if (template != null) {
+                return template;
+            }
+        }
+        return templatesByLocale.get(DEFAULT_LOCALE.toLanguageTag()).get(name);
+    }
+}
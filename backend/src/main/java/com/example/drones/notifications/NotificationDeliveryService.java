@@ -0,0 +1,187 @@
+package com.example.drones.notifications;
+
+import com.example.drones.common.concurrency.Downstream;
+import com.example.drones.common.concurrency.DownstreamLimiter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailParseException;
+import org.springframework.mail.MailPreparationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class NotificationDeliveryService {
+
+    private final NotificationRepository notificationRepository;
+    private final EmailService emailService;
+    private final TransactionTemplate transactionTemplate;
+    private final SmtpRateLimiter rateLimiter;
+    private final NotificationMetrics notificationMetrics;
+    private final DownstreamLimiter downstreamLimiter;
+    private final Clock clock;
+
+    @Value("${app.notifications.batch-size:20}")
+    private int batchSize;
+
+    @Value("${app.notifications.lease:PT5M}")
+    private Duration lease;
+
+    @Value("${app.notifications.max-attempts:8}")
+    private int maxAttempts;
+
+    @Value("${app.notifications.retry-backoff:PT30S}")
+    private Duration retryBackoff;
+
+    @Value("${app.notifications.max-backoff:PT1H}")
+    private Duration maxBackoff;
+
+    @Value("${app.notifications.digest.enabled:false}")
+    private boolean digestEnabled;
+
+    /**
+     * Leases the notifications of as many due emails as the SMTP rate limit allows, up to a batch, and sends them
+     * over one SMTP session. A digest takes a single token however many orders it lists.
+     *
+     * @return the number of notifications leased, 0 when none was due or the rate limit is exhausted
+     */
+    public int deliverNext() {
+        LocalDateTime now = LocalDateTime.now(clock);
+        int permits = rateLimiter.tryAcquireUpTo(batchSize, sentLastDay(now));
+        if (permits == 0) {
+            LocalDateTime oldestDueAt = inTransaction(status -> notificationRepository.findOldestDueAt(now));
+            notificationMetrics.recordThrottled(oldestDueAt == null ? Duration.ZERO : Duration.between(oldestDueAt, now));
+            return 0;
+        }
+        List<NotificationEntity> batch = inTransaction(status ->
+                notificationRepository.leaseDue(now, now.plus(lease), permits, digestEnabled));
+        int leased = batch == null ? 0 : batch.size();
+        rateLimiter.release(permits - countEmails(batch));
+        if (leased == 0) {
+            notificationMetrics.recordSendLag(Duration.ZERO);
+            return 0;
+        }
+        deliver(batch);
+        return leased;
+    }
+
+    /**
+     * Delivers freshly committed notifications without waiting for the next poll. Notifications that are not due
+     * yet, that a worker has already leased, or that exceed the SMTP rate limit are left to the workers.
+     */
+    public void deliverNow(List<Long> ids) {
+        LocalDateTime now = LocalDateTime.now(clock);
+        int permits = rateLimiter.tryAcquireUpTo(ids.size(), sentLastDay(now));
+        if (permits == 0) {
+            return;
+        }
+        Long[] permitted = ids.subList(0, permits).toArray(Long[]::new);
+        List<NotificationEntity> batch = inTransaction(status ->
+                notificationRepository.leaseByIds(permitted, now, now.plus(lease)));
+        rateLimiter.release(permits - countEmails(batch));
+        if (batch != null && !batch.isEmpty()) {
+            deliver(batch);
+        }
+    }
+
+    /**
+     * Sends a leased batch and records each outcome on its own, so a failing email is retried with exponential
+     * backoff without holding back the rest of the batch, and is dead-lettered once it runs out of attempts.
+     */
+    private void deliver(List<NotificationEntity> batch) {
+        Map<Long, Exception> failures = emailService.sendAll(batch);
+
+        Long[] sentIds = batch.stream()
+                .map(NotificationEntity::getId)
+                .filter(id -> !failures.containsKey(id))
+                .toArray(Long[]::new);
+        if (sentIds.length > 0) {
+            inTransaction(status ->
+                    notificationRepository.markAllSent(sentIds, LocalDateTime.now(clock)));
+        }
+        LocalDateTime failedAt = LocalDateTime.now(clock);
+        batch.stream()
+                .filter(notification -> failures.containsKey(notification.getId()))
+                .collect(Collectors.groupingBy(this::emailOf, LinkedHashMap::new, Collectors.toList()))
+                .values()
+                .forEach(email -> recordFailure(email, failures, failedAt));
+    }
+
+    /**
+     * Dead-letters the notifications of a failed email that cannot succeed, and reschedules the rest together,
+     * backing off by the most attempts among them, so a digest is retried as one email again.
+     */
+    private void recordFailure(List<NotificationEntity> email, Map<Long, Exception> failures, LocalDateTime failedAt) {
+        List<NotificationEntity> retried = new ArrayList<>();
+        for (NotificationEntity notification : email) {
+            Exception error = failures.get(notification.getId());
+            // A message that cannot even be built will fail the same way on every attempt.
+            boolean permanent = error instanceof MailParseException || error instanceof MailPreparationException;
+            int attempts = notification.getAttempts();
+            if (permanent || attempts >= maxAttempts) {
+                log.error("Notification {} ({} to {}) dead-lettered after {} attempts",
+                        notification.getId(), notification.getType(), notification.getRecipientEmail(), attempts, error);
+                inTransaction(status -> notificationRepository.markDead(notification.getId(), String.valueOf(error.getMessage())));
+            } else {
+                retried.add(notification);
+            }
+        }
+        if (retried.isEmpty()) {
+            return;
+        }
+        NotificationEntity first = retried.get(0);
+        Exception error = failures.get(first.getId());
+        int attempts = retried.stream().mapToInt(NotificationEntity::getAttempts).max().orElseThrow();
+        Duration backoff = retryBackoff.multipliedBy(1L << Math.min(attempts - 1, 16));
+        LocalDateTime retryAt = failedAt.plus(backoff.compareTo(maxBackoff) > 0 ? maxBackoff : backoff);
+        Long[] ids = retried.stream().map(NotificationEntity::getId).toArray(Long[]::new);
+        log.warn("Notifications {} ({} to {}) failed on attempt {}, retrying at {}",
+                Arrays.toString(ids), first.getType(), first.getRecipientEmail(), attempts, retryAt, error);
+        inTransaction(status -> notificationRepository.rescheduleAll(ids, retryAt, String.valueOf(error.getMessage())));
+    }
+
+    /**
+     * Identifies the email a notification is sent in, the same way {@link EmailService} groups them: a digest per
+     * recipient for new orders in digest mode, otherwise one email per notification.
+     */
+    private Object emailOf(NotificationEntity notification) {
+        return digestEnabled && notification.getType() == NotificationType.NEW_ORDER
+                ? notification.getRecipientEmail()
+                : notification.getId();
+    }
+
+    /**
+     * Counts the emails every node sent over the last 24 hours, which the daily quota is checked against.
+     */
+    private long sentLastDay(LocalDateTime now) {
+        if (!rateLimiter.hasDailyLimit()) {
+            return 0;
+        }
+        Long sent = inTransaction(status -> notificationRepository.countEmailsSentSince(now.minusDays(1), digestEnabled));
+        return sent == null ? 0 : sent;
+    }
+
+    private int countEmails(List<NotificationEntity> batch) {
+        return batch == null ? 0 : (int) batch.stream().map(this::emailOf).distinct().count();
+    }
+
+    /**
+     * Runs a short transaction under the notification database limit. The limit is never held while talking to the SMTP server.
+     */
+    private <T> T inTransaction(TransactionCallback<T> callback) {
+        return downstreamLimiter.call(Downstream.NOTIFICATION_DATABASE, () -> transactionTemplate.execute(callback));
+    }
+}
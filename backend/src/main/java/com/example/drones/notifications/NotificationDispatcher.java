@@ -0,0 +1,67 @@
+package com.example.drones.notifications;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+/**
+ * Hands freshly enqueued notifications to the notification executor once their transaction commits. The calling
+ * thread only submits tasks and never waits: when the executor is full the notifications simply stay in the outbox
+ * until a notification worker polls them.
+ */
+@Component
+@Slf4j
+public class NotificationDispatcher {
+
+    private final ThreadPoolTaskExecutor executor;
+    private final NotificationDeliveryService notificationDeliveryService;
+    private final NotificationMetrics notificationMetrics;
+
+    @Value("${app.notifications.batch-size:20}")
+    private int batchSize;
+
+    public NotificationDispatcher(
+            @Qualifier("notificationExecutor") ThreadPoolTaskExecutor executor,
+            NotificationDeliveryService notificationDeliveryService,
+            NotificationMetrics notificationMetrics
+    ) {
+        this.executor = executor;
+        this.notificationDeliveryService = notificationDeliveryService;
+        this.notificationMetrics = notificationMetrics;
+    }
+
+    public void dispatchAfterCommit(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            dispatch(ids);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                dispatch(ids);
+            }
+        });
+    }
+
+    void dispatch(List<Long> ids) {
+        for (int from = 0; from < ids.size(); from += batchSize) {
+            List<Long> chunk = List.copyOf(ids.subList(from, Math.min(from + batchSize, ids.size())));
+            try {
+                executor.execute(() -> notificationDeliveryService.deliverNow(chunk));
+            } catch (TaskRejectedException e) {
+                notificationMetrics.recordSpilled(chunk.size());
+                log.debug("Notification executor is full, leaving {} notifications to the outbox workers", chunk.size());
+            }
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.drones.notifications;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A notification as it is written to the outbox. It is built from {@link RecipientSnapshot} and
+ * {@link OrderSnapshot}, which are taken in the originating transaction, so the payload holds every value the
+ * email needs and delivery never goes back to the database.
+ *
+ * @param sendKey identifies the notification; the outbox keeps a single row per key
+ */
+public record NotificationMessage(
+        NotificationType type,
+        String sendKey,
+        String recipientEmail,
+        Map<String, String> payload
+) {
+
+    public static final String RECIPIENT_NAME = "recipientName";
+    public static final String TITLE = "title";
+    public static final String DESCRIPTION = "description";
+    public static final String SERVICE = "service";
+    public static final String COORDINATES = "coordinates";
+    public static final String ORDER_ID = "orderId";
+    /**
+     * Optional language tag of the recipient; templates fall back to Polish without it.
+     */
+    public static final String LOCALE = "locale";
+
+    public NotificationMessage {
+        payload = Map.copyOf(payload);
+    }
+
+    public static NotificationMessage newOrder(RecipientSnapshot operator, OrderSnapshot order) {
+        return newOrder(operator, order, 0);
+    }
+
+    /**
+     * @param revivals how many times the match was revived after expiring; each revival is a notification of its own
+     */
+    public static NotificationMessage newOrder(RecipientSnapshot operator, OrderSnapshot order, int revivals) {
+        String sendKey = sendKey(NotificationType.NEW_ORDER, order, operator);
+        if (revivals > 0) {
+            sendKey += ":" + revivals;
+        }
+        return new NotificationMessage(NotificationType.NEW_ORDER, sendKey, operator.email(), payload(operator, order));
+    }
+
+    public static NotificationMessage orderAcceptedByOperator(RecipientSnapshot client, RecipientSnapshot operator, OrderSnapshot order) {
+        return new NotificationMessage(
+                NotificationType.ORDER_ACCEPTED_BY_OPERATOR,
+                sendKey(NotificationType.ORDER_ACCEPTED_BY_OPERATOR, order, operator),
+                client.email(),
+                payload(client, order)
+        );
+    }
+
+    public static NotificationMessage operatorAcceptedByClient(RecipientSnapshot operator, OrderSnapshot order) {
+        return of(NotificationType.OPERATOR_ACCEPTED_BY_CLIENT, operator, order);
+    }
+
+    private static NotificationMessage of(NotificationType type, RecipientSnapshot operator, OrderSnapshot order) {
+        return new NotificationMessage(type, sendKey(type, order, operator), operator.email(), payload(operator, order));
+    }
+
+    private static String sendKey(NotificationType type, OrderSnapshot order, RecipientSnapshot operator) {
+        return type.name() + ":" + order.id() + ":" + operator.id();
+    }
+
+    private static Map<String, String> payload(RecipientSnapshot recipient, OrderSnapshot order) {
+        Map<String, String> payload = new HashMap<>();
+        payload.put(RECIPIENT_NAME, recipient.name());
+        payload.put(TITLE, order.title());
+        payload.put(DESCRIPTION, order.description());
+        payload.put(SERVICE, order.service());
+        payload.put(COORDINATES, order.coordinates());
+        payload.put(ORDER_ID, String.valueOf(order.id()));
+        if (recipient.locale() != null) {
+            payload.put(LOCALE, recipient.locale());
+        }
+        return payload;
+    }
+}
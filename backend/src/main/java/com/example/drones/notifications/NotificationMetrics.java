@@ -0,0 +1,53 @@
+package com.example.drones.notifications;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Meters of notification delivery. All of them are named {@code notifications.*}; the notification executor itself
+ * is measured by {@link com.example.drones.common.concurrency.ExecutorMetrics}.
+ */
+@Component
+public class NotificationMetrics {
+
+    public static final String PREFIX = "notifications.";
+
+    private final Counter spilled;
+    private final Counter throttled;
+    private final AtomicLong sendLagMillis = new AtomicLong();
+
+    public NotificationMetrics(MeterRegistry registry, SmtpRateLimiter rateLimiter) {
+        spilled = Counter.builder(PREFIX + "spilled")
+                .description("Notifications left to the outbox workers because the notification executor was full")
+                .register(registry);
+        throttled = Counter.builder(PREFIX + "smtp.throttled")
+                .description("Delivery attempts that found the SMTP rate limit exhausted and left notifications queued")
+                .register(registry);
+        TimeGauge.builder(PREFIX + "smtp.lag", sendLagMillis, TimeUnit.MILLISECONDS, AtomicLong::get)
+                .description("How long the oldest due notification has been waiting, as of the last throttled delivery attempt")
+                .register(registry);
+        Gauge.builder(PREFIX + "smtp.daily_remaining", rateLimiter, SmtpRateLimiter::dailyRemaining)
+                .description("Emails the daily SMTP quota still allows")
+                .register(registry);
+    }
+
+    public void recordSpilled(int notifications) {
+        spilled.increment(notifications);
+    }
+
+    public void recordThrottled(Duration lag) {
+        throttled.increment();
+        recordSendLag(lag);
+    }
+
+    public void recordSendLag(Duration lag) {
+        sendLagMillis.set(Math.max(0, lag.toMillis()));
+    }
+}
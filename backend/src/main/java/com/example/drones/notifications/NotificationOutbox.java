@@ -0,0 +1,74 @@
+package com.example.drones.notifications;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+public class NotificationOutbox {
+
+    private final NotificationRepository notificationRepository;
+    private final NotificationDispatcher notificationDispatcher;
+    private final ObjectMapper objectMapper;
+    private final Clock clock;
+
+    @Value("${app.notifications.digest.enabled:false}")
+    private boolean digestEnabled;
+
+    @Value("${app.notifications.digest.window:PT15M}")
+    private Duration digestWindow;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueue(NotificationMessage message) {
+        enqueueAll(List.of(message));
+    }
+
+    /**
+     * Writes the messages in the caller's transaction, so they are sent if and only if the change they announce
+     * commits. Once it does, they are handed to the notification executor, or picked up by the notification
+     * workers when the executor is busy.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public int enqueueAll(Collection<NotificationMessage> messages) {
+        if (messages.isEmpty()) {
+            return 0;
+        }
+        int size = messages.size();
+        String[] sendKeys = new String[size];
+        String[] types = new String[size];
+        String[] recipientEmails = new String[size];
+        String[] payloads = new String[size];
+        int i = 0;
+        for (NotificationMessage message : messages) {
+            sendKeys[i] = message.sendKey();
+            types[i] = message.type().name();
+            recipientEmails[i] = message.recipientEmail();
+            payloads[i] = toJson(message);
+            i++;
+        }
+        LocalDateTime now = LocalDateTime.now(clock);
+        List<Long> ids = notificationRepository.enqueueAll(
+                sendKeys, types, recipientEmails, payloads, now, digestEnabled, now.plus(digestWindow));
+        notificationDispatcher.dispatchAfterCommit(ids);
+        return ids.size();
+    }
+
+    private String toJson(NotificationMessage message) {
+        try {
+            return objectMapper.writeValueAsString(message.payload());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize payload of notification " + message.sendKey(), e);
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.example.drones.notifications;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface NotificationRepository extends JpaRepository<NotificationEntity, Long> {
+
+    /**
+     * Inserts one outbox row per element of the parallel arrays. A send key that is already in the outbox
+     * is skipped, so enqueueing the same notification twice still sends it once.
+     * <p>
+     * With {@code digest} set, new order notifications are held until {@code digestDueAt}, or joined to the
+     * recipient's digest that is already waiting, so every order of one digest becomes due at the same time.
+     *
+     * @return ids of the rows actually inserted
+     */
+    @Query(value = """
+            INSERT INTO notification_outbox (send_key, notification_type, recipient_email, payload, available_at, created_at)
+            SELECT m.send_key, m.notification_type, m.recipient_email, CAST(m.payload AS jsonb),
+                   CASE
+                       WHEN :digest AND m.notification_type = 'NEW_ORDER' THEN COALESCE(
+                           (SELECT MIN(w.available_at)
+                            FROM notification_outbox w
+                            WHERE w.recipient_email = m.recipient_email
+                              AND w.notification_type = 'NEW_ORDER'
+                              AND w.status = 'PENDING'
+                              AND w.attempts = 0
+                              AND w.available_at > :now),
+                           :digestDueAt)
+                       ELSE :now
+                   END,
+                   :now
+            FROM unnest(CAST(:sendKeys AS varchar[]), CAST(:types AS varchar[]),
+                        CAST(:recipientEmails AS varchar[]), CAST(:payloads AS varchar[]))
+                AS m(send_key, notification_type, recipient_email, payload)
+            ON CONFLICT (send_key) DO NOTHING
+            RETURNING id
+            """, nativeQuery = true)
+    List<Long> enqueueAll(String[] sendKeys, String[] types, String[] recipientEmails, String[] payloads,
+                   LocalDateTime now, boolean digest, LocalDateTime digestDueAt);
+
+    /**
+     * Leases the due notifications of up to {@code limit} emails until {@code leaseUntil} and counts the attempt.
+     * With {@code digest} set, all new order notifications of one recipient make up a single email and are leased
+     * together, so a digest is never split across batches or workers; every other notification is an email of its
+     * own. Each email is claimed with a transaction-scoped advisory lock, so concurrent workers skip emails another
+     * worker is leasing instead of taking part of them.
+     * <p>
+     * The lease is committed before anything is sent, so no row lock or connection is held while talking to SMTP;
+     * a worker that dies mid-send leaves its rows to be picked up again once the lease runs out.
+     */
+    @Query(value = """
+            WITH emails AS MATERIALIZED (
+                SELECT email
+                FROM (
+                    SELECT CASE
+                               WHEN :digest AND notification_type = 'NEW_ORDER' THEN recipient_email
+                               ELSE CAST(id AS varchar)
+                           END AS email,
+                           MIN(available_at) AS due_at
+                    FROM notification_outbox
+                    WHERE status = 'PENDING'
+                      AND available_at <= :now
+                    GROUP BY 1
+                    ORDER BY due_at, email
+                ) due
+                WHERE pg_try_advisory_xact_lock(hashtextextended(due.email, 0))
+                LIMIT :limit
+            )
+            UPDATE notification_outbox
+            SET available_at = :leaseUntil,
+                attempts     = attempts + 1
+            WHERE id IN (
+                SELECT id
+                FROM notification_outbox
+                WHERE status = 'PENDING'
+                  AND available_at <= :now
+                  AND CASE
+                          WHEN :digest AND notification_type = 'NEW_ORDER' THEN recipient_email
+                          ELSE CAST(id AS varchar)
+                      END IN (SELECT email FROM emails)
+                FOR UPDATE
+            )
+            RETURNING *
+            """, nativeQuery = true)
+    List<NotificationEntity> leaseDue(LocalDateTime now, LocalDateTime leaseUntil, int limit, boolean digest);
+
+    /**
+     * Leases the given notifications the same way as {@link #leaseDue}, skipping any that are not due yet, already
+     * leased by a worker or no longer pending.
+     */
+    @Query(value = """
+            UPDATE notification_outbox
+            SET available_at = :leaseUntil,
+                attempts     = attempts + 1
+            WHERE id IN (
+                SELECT id
+                FROM notification_outbox
+                WHERE id = ANY(CAST(:ids AS bigint[]))
+                  AND status = 'PENDING'
+                  AND available_at <= :now
+                FOR UPDATE SKIP LOCKED
+            )
+            RETURNING *
+            """, nativeQuery = true)
+    List<NotificationEntity> leaseByIds(Long[] ids, LocalDateTime now, LocalDateTime leaseUntil);
+
+    @Modifying
+    @Query(value = """
+            UPDATE notification_outbox
+            SET status = 'SENT', sent_at = :sentAt, last_error = NULL
+            WHERE id = ANY(CAST(:ids AS bigint[]))
+            """, nativeQuery = true)
+    int markAllSent(Long[] ids, LocalDateTime sentAt);
+
+    /**
+     * Puts the notifications back in the queue, all due at the same time, so an email that failed as a whole is
+     * retried as a whole.
+     */
+    @Modifying
+    @Query(value = """
+            UPDATE notification_outbox
+            SET available_at = :availableAt, last_error = :error
+            WHERE id = ANY(CAST(:ids AS bigint[]))
+            """, nativeQuery = true)
+    int rescheduleAll(Long[] ids, LocalDateTime availableAt, String error);
+
+    @Modifying
+    @Query(value = """
+            UPDATE notification_outbox
+            SET status = 'DEAD', last_error = :error
+            WHERE id = :id
+            """, nativeQuery = true)
+    int markDead(Long id, String error);
+
+    /**
+     * Counts the emails sent since {@code since}. With {@code digest} set, the new order notifications one recipient
+     * was sent at the same moment made up a single digest email.
+     */
+    @Query(value = """
+            SELECT COUNT(DISTINCT CASE
+                                      WHEN :digest AND notification_type = 'NEW_ORDER'
+                                          THEN recipient_email || ' ' || CAST(sent_at AS varchar)
+                                      ELSE CAST(id AS varchar)
+                                  END)
+            FROM notification_outbox
+            WHERE status = 'SENT'
+              AND sent_at > :since
+            """, nativeQuery = true)
+    long countEmailsSentSince(LocalDateTime since, boolean digest);
+
+    /**
+     * @return when the longest-waiting due notification became due, {@code null} when nothing is due
+     */
+    @Query(value = """
+            SELECT MIN(available_at) FROM notification_outbox
+            WHERE status = 'PENDING' AND available_at <= :now
+            """, nativeQuery = true)
+    LocalDateTime findOldestDueAt(LocalDateTime now);
+}
@@ -0,0 +1,7 @@
+package com.example.drones.notifications;
+
+public enum NotificationStatus {
+    PENDING,
+    SENT,
+    DEAD
+}
@@ -0,0 +1,49 @@
+package com.example.drones.notifications;
+
+/**
+ * One notification in one language. The greeting is the first paragraph of the body and is the only part that
+ * may address the recipient; the rest depends on the order alone, so it can be rendered once and shared by every
+ * recipient of the same order.
+ *
+ * @param subject null for fragments that are embedded in other templates
+ */
+public record NotificationTemplate(EmailTemplate subject, EmailTemplate greeting, EmailTemplate body) {
+
+    static final String RECIPIENT_SLOT = NotificationMessage.RECIPIENT_NAME;
+
+    private static final String SUBJECT_PREFIX = "Subject: ";
+    private static final String PARAGRAPH_BREAK = "\n\n";
+
+    /**
+     * Parses a template file: an optional {@code Subject: } line followed by a blank line, then the body.
+     */
+    static NotificationTemplate parse(String name, String source) {
+        String text = source.replace("\r\n", "\n");
+        // The file's final line break is not part of the template.
+        if (text.endsWith("\n")) {
+            text = text.substring(0, text.length() - 1);
+        }
+
+        EmailTemplate subject = null;
+        if (text.startsWith(SUBJECT_PREFIX)) {
+            int end = text.indexOf(PARAGRAPH_BREAK);
+            if (end < 0) {
+                throw new IllegalStateException("Email template " + name + " has a subject but no body");
+            }
+            subject = EmailTemplate.compile(text.substring(SUBJECT_PREFIX.length(), end));
+            text = text.substring(end + PARAGRAPH_BREAK.length());
+        }
+
+        String greeting = "";
+        int paragraphEnd = text.indexOf(PARAGRAPH_BREAK);
+        if (paragraphEnd >= 0 && EmailTemplate.compile(text.substring(0, paragraphEnd)).uses(RECIPIENT_SLOT)) {
+            greeting = text.substring(0, paragraphEnd + PARAGRAPH_BREAK.length());
+            text = text.substring(greeting.length());
+        }
+        EmailTemplate body = EmailTemplate.compile(text);
+        if (body.uses(RECIPIENT_SLOT)) {
+            throw new IllegalStateException("Email template " + name + " may only use {{" + RECIPIENT_SLOT + "}} in its first paragraph");
+        }
+        return new NotificationTemplate(subject, EmailTemplate.compile(greeting), body);
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.drones.notifications;
+
+public enum NotificationType {
+    NEW_ORDER,
+    ORDER_ACCEPTED_BY_OPERATOR,
+    OPERATOR_ACCEPTED_BY_CLIENT
+}
@@ -0,0 +1,58 @@
+package com.example.drones.notifications;
+
+import com.example.drones.common.concurrency.ExecutorMetrics;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class NotificationWorker {
+
+    private final NotificationDeliveryService notificationDeliveryService;
+    private final ExecutorMetrics executorMetrics;
+    private final ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+
+    @Value("${app.notifications.workers:2}")
+    private int workers;
+
+    @Value("${app.notifications.poll-interval:PT1S}")
+    private Duration pollInterval;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        scheduler.setPoolSize(workers);
+        scheduler.setThreadNamePrefix("notification-worker-");
+        scheduler.setWaitForTasksToCompleteOnShutdown(true);
+        ExecutorMetrics.TaskMeters taskMeters = executorMetrics.instrument(scheduler, "notification-worker", "email");
+        scheduler.initialize();
+        for (int i = 0; i < workers; i++) {
+            scheduler.scheduleWithFixedDelay(taskMeters.decorate(this::drain), pollInterval);
+        }
+        log.info("Started {} notification workers", workers);
+    }
+
+    @PreDestroy
+    public void stop() {
+        scheduler.shutdown();
+    }
+
+    private void drain() {
+        try {
+            int delivered = 1;
+            while (delivered > 0) {
+                delivered = notificationDeliveryService.deliverNext();
+            }
+        } catch (RuntimeException e) {
+            log.error("Notification worker failed to lease notifications", e);
+        }
+    }
+}
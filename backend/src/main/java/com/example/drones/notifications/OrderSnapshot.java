@@ -0,0 +1,29 @@
+package com.example.drones.notifications;
+
+import com.example.drones.orders.OrdersEntity;
+
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * The fields of an order that notifications show. It has to be taken while the order is still managed, since
+ * reading the service name may load it.
+ */
+public record OrderSnapshot(
+        UUID id,
+        String title,
+        String description,
+        String service,
+        String coordinates
+) {
+
+    public static OrderSnapshot of(OrdersEntity order) {
+        return new OrderSnapshot(
+                order.getId(),
+                Objects.toString(order.getTitle(), ""),
+                Objects.toString(order.getDescription(), ""),
+                order.getService().getName(),
+                Objects.toString(order.getCoordinates(), "")
+        );
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.drones.notifications;
+
+import com.example.drones.user.UserEntity;
+
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * The fields of a user that a notification needs to address them.
+ *
+ * @param locale language tag of the user's emails, {@code null} for the default
+ */
+public record RecipientSnapshot(
+        UUID id,
+        String email,
+        String name,
+        String locale
+) {
+
+    public static RecipientSnapshot of(UserEntity user) {
+        return new RecipientSnapshot(user.getId(), user.getEmail(), Objects.toString(user.getName(), ""), user.getLocale());
+    }
+}
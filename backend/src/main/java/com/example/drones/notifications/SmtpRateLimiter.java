@@ -0,0 +1,105 @@
+package com.example.drones.notifications;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+
+/**
+ * Keeps outgoing email within the SMTP provider's sending quotas. A small per-second token bucket smooths out
+ * fan-out bursts on this node. The daily quota is shared by every node, so it is checked against the emails the
+ * outbox recorded as sent over the last 24 hours, which the caller reads before asking for tokens. Emails that are
+ * leased but not yet marked sent are not counted, so concurrent workers may overshoot the daily quota by at most a
+ * batch each. Callers never wait for tokens; notifications that get none stay queued in the outbox. A limit of 0 or
+ * less disables it.
+ */
+@Component
+public class SmtpRateLimiter {
+
+    private final Clock clock;
+    private final TokenBucket perSecond;
+    private final long perDay;
+    private long sentLastDay;
+
+    public SmtpRateLimiter(
+            Clock clock,
+            @Value("${app.notifications.rate-limit.per-second:5}") double perSecond,
+            @Value("${app.notifications.rate-limit.per-day:2000}") long perDay
+    ) {
+        this.clock = clock;
+        this.perSecond = perSecond > 0 ? new TokenBucket(Math.max(1, perSecond), perSecond / 1000.0, clock.millis()) : null;
+        this.perDay = perDay;
+    }
+
+    /**
+     * @return whether {@link #tryAcquireUpTo} needs the number of emails sent over the last 24 hours
+     */
+    public boolean hasDailyLimit() {
+        return perDay > 0;
+    }
+
+    /**
+     * Takes as many tokens as are available, up to {@code wanted}, one per email about to be sent.
+     *
+     * @param sentLastDay emails all nodes sent over the last 24 hours, ignored without a daily limit
+     * @return the number of emails that may be sent now, 0 when the sender has to wait
+     */
+    public synchronized int tryAcquireUpTo(int wanted, long sentLastDay) {
+        double available = wanted;
+        if (perSecond != null) {
+            available = Math.min(available, perSecond.refill(clock.millis()));
+        }
+        if (hasDailyLimit()) {
+            this.sentLastDay = sentLastDay;
+            available = Math.min(available, perDay - sentLastDay);
+        }
+        int granted = (int) Math.max(0, available);
+        if (granted > 0 && perSecond != null) {
+            perSecond.take(granted);
+        }
+        return granted;
+    }
+
+    /**
+     * Gives back tokens that were acquired but not used, e.g. because fewer notifications were due than permitted.
+     */
+    public synchronized void release(int unused) {
+        if (unused > 0 && perSecond != null) {
+            perSecond.take(-unused);
+        }
+    }
+
+    /**
+     * @return the number of emails the daily quota allowed when it was last checked
+     */
+    public synchronized double dailyRemaining() {
+        return hasDailyLimit() ? Math.max(0, perDay - sentLastDay) : Double.POSITIVE_INFINITY;
+    }
+
+    private static final class TokenBucket {
+
+        private final double capacity;
+        private final double tokensPerMilli;
+        private double tokens;
+        private long refilledAt;
+
+        private TokenBucket(double capacity, double tokensPerMilli, long now) {
+            this.capacity = capacity;
+            this.tokensPerMilli = tokensPerMilli;
+            this.tokens = capacity;
+            this.refilledAt = now;
+        }
+
+        private double refill(long now) {
+            if (now > refilledAt) {
+                tokens = Math.min(capacity, tokens + (now - refilledAt) * tokensPerMilli);
+                refilledAt = now;
+            }
+            return tokens;
+        }
+
+        private void take(int count) {
+            tokens = Math.min(capacity, tokens - count);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.drones.operators;
+
+import com.example.drones.common.sse.SseEventRelay;
+import com.example.drones.common.sse.SseHub;
+import com.example.drones.operators.dto.MatchStatusChangedDto;
+import com.example.drones.operators.dto.NewMatchDto;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Pushes changes to an operator's matched orders over an event stream, so the operator does not have to poll
+ * the matched orders list. Events are published in the caller's transaction and delivered once it commits.
+ */
+@Component
+public class MatchedOrderStream {
+
+    public static final String MATCHED_ORDER_EVENT = "matched-order";
+    public static final String MATCH_STATUS_EVENT = "match-status";
+
+    private final SseHub hub;
+    private final SseEventRelay relay;
+
+    public MatchedOrderStream(
+            SseEventRelay relay,
+            MeterRegistry registry,
+            @Value("${app.events.buffer-size:32}") int bufferSize,
+            @Value("${app.events.heartbeat:PT25S}") Duration heartbeat,
+            @Value("${app.events.timeout:PT30M}") Duration timeout
+    ) {
+        this.hub = new SseHub("operators", bufferSize, heartbeat, timeout, registry);
+        this.relay = relay;
+        relay.register(hub);
+    }
+
+    public SseEmitter subscribe(UUID operatorId) {
+        return hub.subscribe(operatorId);
+    }
+
+    /**
+     * Only the order id is sent; the operator loads the match over REST when it is shown.
+     *
+     * @param operatorIds the operator each order at the same position was matched to
+     */
+    public void publishNewMatches(List<UUID> operatorIds, List<UUID> orderIds) {
+        relay.publishAll(hub, MATCHED_ORDER_EVENT, operatorIds, orderIds.stream().map(NewMatchDto::new).toList());
+    }
+
+    public void publishStatusChange(UUID operatorId, MatchStatusChangedDto statusChange) {
+        relay.publish(hub, operatorId, MATCH_STATUS_EVENT, statusChange);
+    }
+}
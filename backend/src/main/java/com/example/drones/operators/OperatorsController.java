@@ -8,9 +8,11 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
 import java.util.UUID;
@@ -22,6 +24,7 @@ public class OperatorsController {
 
     private final OperatorsService operatorsService;
     private final JwtService jwtService;
+    private final MatchedOrderStream matchedOrderStream;
 
     @PostMapping("/createOperatorProfile")
     @PreAuthorize("hasRole('CLIENT')")
@@ -81,4 +84,11 @@ public class OperatorsController {
         Page<MatchedOrderDto> response = operatorsService.getMatchedOrders(userId, filters, pageable);
         return ResponseEntity.ok(response);
     }
+
+    @GetMapping(value = "/streamMatchedOrders", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasRole('OPERATOR')")
+    public SseEmitter streamMatchedOrders() {
+        UUID userId = jwtService.extractUserId();
+        return matchedOrderStream.subscribe(userId);
+    }
 }
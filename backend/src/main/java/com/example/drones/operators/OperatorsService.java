@@ -1,6 +1,8 @@
 package com.example.drones.operators;
 
 import com.example.drones.auth.exceptions.InvalidCredentialsException;
+import com.example.drones.common.GeoBoundingBox;
+import com.example.drones.common.GeoPoint;
 import com.example.drones.common.config.exceptions.UserNotFoundException;
 import com.example.drones.operators.dto.*;
 import com.example.drones.operators.exceptions.NoSuchOperatorException;
@@ -22,12 +24,13 @@ import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.transaction.support.TransactionSynchronization;
-import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.*;
 
@@ -35,6 +38,8 @@ import java.util.*;
 @RequiredArgsConstructor
 public class OperatorsService {
 
+    private static final String DISTANCE_SORT_PROPERTY = "distance";
+
     private final UserRepository userRepository;
     private final PortfolioRepository portfolioRepository;
     private final OperatorServicesService operatorServicesService;
@@ -44,7 +49,7 @@ public class OperatorsService {
     private final NewMatchedOrdersRepository newMatchedOrdersRepository;
     private final OrdersMapper ordersMapper;
     private final ReviewsRepository reviewsRepository;
-    private final MatchingService matchingService;
+    private final MatchingJobService matchingJobService;
 
     @Transactional
     @CacheEvict(value = "users", key = "#userId")
@@ -60,12 +65,7 @@ public class OperatorsService {
 
         List<String> savedServices = operatorServicesService.addOperatorServices(savedUser, operatorDto.services());
 
-        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
-            @Override
-            public void afterCommit() {
-                matchingService.matchOrdersToNewOperator(savedUser);
-            }
-        });
+        matchingJobService.enqueue(MatchingJobType.OPERATOR_CREATED, savedUser.getId());
 
         return operatorMapper.toOperatorProfileDto(savedUser, savedServices);
     }
@@ -76,6 +76,10 @@ public class OperatorsService {
         UserEntity user = userRepository.findById(userId)
                 .orElseThrow(UserNotFoundException::new);
 
+        boolean coverageChanged = operatorDto.services() != null
+                || (operatorDto.coordinates() != null && !operatorDto.coordinates().equals(user.getCoordinates()))
+                || (operatorDto.radius() != null && !operatorDto.radius().equals(user.getRadius()));
+
         if (operatorDto.coordinates() != null) {
             user.setCoordinates(operatorDto.coordinates());
         }
@@ -92,6 +96,13 @@ public class OperatorsService {
             savedServices = operatorServicesService.editOperatorServices(savedUser, operatorDto.services());
         } else {
             savedServices = operatorServicesService.getOperatorServices(savedUser);
+            if (coverageChanged) {
+                operatorServicesService.refreshCoverage(savedUser);
+            }
+        }
+
+        if (coverageChanged) {
+            matchingJobService.enqueue(MatchingJobType.OPERATOR_UPDATED, savedUser.getId());
         }
         return operatorMapper.toOperatorProfileDto(savedUser, savedServices);
     }
@@ -164,11 +175,19 @@ public class OperatorsService {
         UserEntity operator = userRepository.findByIdWithPortfolio(userId)
                 .orElseThrow(UserNotFoundException::new);
 
-        String location = filters.location() != null ? filters.location() : operator.getCoordinates();
+        // Distances from the operator's own location are stored on the match rows; a custom location needs them computed.
+        boolean ownLocation = filters.location() == null;
+        String location = ownLocation ? operator.getCoordinates() : filters.location();
         Integer radius = filters.radius() != null ? filters.radius() : operator.getRadius();
 
-        Specification<OrdersEntity> spec = createSpecification(userId, filters, location, radius);
-        Page<OrdersEntity> orders = ordersRepository.findAll(spec, pageable);
+        Sort.Order distanceOrder = pageable.getSort().getOrderFor(DISTANCE_SORT_PROPERTY);
+        Sort otherOrders = Sort.by(pageable.getSort().filter(order -> !DISTANCE_SORT_PROPERTY.equals(order.getProperty())).toList());
+        Pageable queryPageable = distanceOrder != null
+                ? PageRequest.of(pageable.getPageNumber(), pageable.getPageSize())
+                : pageable;
+
+        Specification<OrdersEntity> spec = createSpecification(userId, filters, location, radius, ownLocation, distanceOrder, otherOrders);
+        Page<OrdersEntity> orders = ordersRepository.findAll(spec, queryPageable);
 
         List<MatchedOrderDto> dtos = orders.getContent().stream()
                 .map(order -> {
@@ -176,7 +195,10 @@ public class OperatorsService {
                             .filter(mo -> mo.getOperator().getId().equals(userId))
                             .findFirst()
                             .orElseThrow();
-                    Double distance = Precision.round(calculateDistance(location, order.getCoordinates()), 2);
+                    Double rawDistance = ownLocation && matchedOrder.getDistanceKm() != null
+                            ? matchedOrder.getDistanceKm()
+                            : GeoPoint.distanceBetween(location, order.getCoordinates());
+                    Double distance = Precision.round(rawDistance, 2);
 
                     return ordersMapper.toMatchedOrderDto(order, matchedOrder, distance);
                 })
@@ -186,7 +208,15 @@ public class OperatorsService {
     }
 
     @SuppressWarnings("unchecked")
-    private Specification<OrdersEntity> createSpecification(UUID userId, MatchedOrdersFilters filters, String location, Integer radius) {
+    private Specification<OrdersEntity> createSpecification(
+            UUID userId,
+            MatchedOrdersFilters filters,
+            String location,
+            Integer radius,
+            boolean ownLocation,
+            Sort.Order distanceOrder,
+            Sort otherOrders
+    ) {
         return (root, query, cb) -> {
             List<Predicate> predicates = new ArrayList<>();
 
@@ -207,6 +237,7 @@ public class OperatorsService {
             Join<OrdersEntity, NewMatchedOrderEntity> nmo = root.join("matchedOrders", JoinType.INNER);
 
             predicates.add(cb.equal(nmo.get("operator").get("id"), userId));
+            predicates.add(cb.notEqual(nmo.get("operatorStatus"), MatchedOrderStatus.EXPIRED));
 
             if (filters.service() != null) {
                 predicates.add(cb.equal(service.get("name"), filters.service()));
@@ -227,91 +258,55 @@ public class OperatorsService {
                 predicates.add(cb.equal(nmo.get("operatorStatus"), filters.operator_status()));
             }
 
-            predicates.add(createDistancePredicate(cb, root, location, radius));
+            GeoPoint center = GeoPoint.tryParse(location);
+            Expression<Double> distance = null;
+            if (center != null && radius != null) {
+                if (ownLocation) {
+                    distance = nmo.get("distanceKm");
+                    predicates.add(cb.lessThanOrEqualTo(distance, radius.doubleValue()));
+                } else {
+                    distance = createDistanceExpression(cb, root, center);
+                    predicates.add(createDistancePredicate(cb, root, center, radius, distance));
+                }
+            }
+
+            if (!isCountQuery && distanceOrder != null) {
+                List<Order> orderBy = new ArrayList<>();
+                if (distance != null) {
+                    orderBy.add(distanceOrder.isAscending() ? cb.asc(distance) : cb.desc(distance));
+                }
+                orderBy.addAll(QueryUtils.toOrders(otherOrders, root, cb));
+                query.orderBy(orderBy);
+            }
 
             return cb.and(predicates.toArray(new Predicate[0]));
         };
     }
 
+    private Expression<Double> createDistanceExpression(CriteriaBuilder cb, Root<OrdersEntity> root, GeoPoint center) {
+        return cb.function("great_circle_km", Double.class,
+                cb.literal(center.latitude()),
+                cb.literal(center.longitude()),
+                root.get("latitude"),
+                root.get("longitude"));
+    }
+
     private Predicate createDistancePredicate(
             CriteriaBuilder cb,
             Root<OrdersEntity> root,
-            String location,
-            Integer radius
+            GeoPoint center,
+            Integer radius,
+            Expression<Double> distance
     ) {
-        try {
-            String[] coords = location.split(",");
-            if (coords.length != 2) {
-                return cb.conjunction();
-            }
-
-            double lat1 = Double.parseDouble(coords[0].trim());
-            double lon1 = Double.parseDouble(coords[1].trim());
-
-            Expression<String> coordinates = root.get("coordinates");
-            Expression<String> latString = cb.function("SPLIT_PART", String.class,
-                    coordinates, cb.literal(","), cb.literal(1));
-
-            Expression<String> lonString = cb.function("SPLIT_PART", String.class,
-                    coordinates, cb.literal(","), cb.literal(2));
-
-            Expression<Double> lat2 = cb.function("float8", Double.class, latString);
-            Expression<Double> lon2 = cb.function("float8", Double.class, lonString);
-
-            // 6371 * acos(cos(radians(lat1)) * cos(radians(lat2)) * cos(radians(lon2) - radians(lon1)) + sin(radians(lat1)) * sin(radians(lat2)))
-            Expression<Double> distance = cb.prod(
-                    cb.literal(6371.0),
-                    cb.function("ACOS", Double.class,
-                            cb.sum(
-                                    cb.prod(
-                                            cb.prod(
-                                                    cb.function("COS", Double.class, cb.function("RADIANS", Double.class, cb.literal(lat1))),
-                                                    cb.function("COS", Double.class, cb.function("RADIANS", Double.class, lat2))
-                                            ),
-                                            cb.function("COS", Double.class,
-                                                    cb.diff(
-                                                            cb.function("RADIANS", Double.class, lon2),
-                                                            cb.function("RADIANS", Double.class, cb.literal(lon1))
-                                                    )
-                                            )
-                                    ),
-                                    cb.prod(
-                                            cb.function("SIN", Double.class, cb.function("RADIANS", Double.class, cb.literal(lat1))),
-                                            cb.function("SIN", Double.class, cb.function("RADIANS", Double.class, lat2))
-                                    )
-                            )
-                    )
-            );
-
-            return cb.lessThanOrEqualTo(distance, radius.doubleValue());
-
-        } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
-            return cb.conjunction();
-        }
-    }
-
-    private Double calculateDistance(String location1, String location2) {
-        if (location1 == null || location2 == null) {
-            return null;
-        }
-
-        String[] cords1 = location1.split(",");
-        String[] cords2 = location2.split(",");
-
-        if (cords1.length != 2 || cords2.length != 2) {
-            return null;
-        }
+        GeoBoundingBox box = GeoBoundingBox.around(center, radius);
 
-        double lat1 = Double.parseDouble(cords1[0].trim());
-        double lon1 = Double.parseDouble(cords1[1].trim());
-        double lat2 = Double.parseDouble(cords2[0].trim());
-        double lon2 = Double.parseDouble(cords2[1].trim());
+        Expression<Double> lat2 = root.get("latitude");
+        Expression<Double> lon2 = root.get("longitude");
 
-        double earthRadius = 6371;
-        return earthRadius * Math.acos(
-                Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) *
-                        Math.cos(Math.toRadians(lon2) - Math.toRadians(lon1)) +
-                        Math.sin(Math.toRadians(lat1)) * Math.sin(Math.toRadians(lat2))
+        return cb.and(
+                cb.between(lat2, box.minLatitude(), box.maxLatitude()),
+                cb.between(lon2, box.minLongitude(), box.maxLongitude()),
+                cb.lessThanOrEqualTo(distance, radius.doubleValue())
         );
     }
 }
@@ -0,0 +1,15 @@
+package com.example.drones.operators.dto;
+
+import com.example.drones.orders.MatchedOrderStatus;
+import com.example.drones.orders.OrderStatus;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.UUID;
+
+public record MatchStatusChangedDto(
+        @JsonProperty("order_id") UUID orderId,
+        @JsonProperty("order_status") OrderStatus orderStatus,
+        @JsonProperty("client_status") MatchedOrderStatus clientStatus,
+        @JsonProperty("operator_status") MatchedOrderStatus operatorStatus
+) {
+}
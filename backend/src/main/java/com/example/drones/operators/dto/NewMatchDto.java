@@ -0,0 +1,10 @@
+package com.example.drones.operators.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.UUID;
+
+public record NewMatchDto(
+        @JsonProperty("order_id") UUID orderId
+) {
+}
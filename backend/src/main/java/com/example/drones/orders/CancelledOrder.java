@@ -0,0 +1,9 @@
+package com.example.drones.orders;
+
+import java.util.UUID;
+
+public interface CancelledOrder {
+    UUID getOrderId();
+
+    UUID getClientId();
+}
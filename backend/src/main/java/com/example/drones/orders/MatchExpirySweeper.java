@@ -0,0 +1,75 @@
+package com.example.drones.orders;
+
+import com.example.drones.common.concurrency.Downstream;
+import com.example.drones.common.concurrency.DownstreamLimiter;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.IntSupplier;
+
+/**
+ * Closes OPEN orders past their deadline, telling their clients, and rejects the pending matches of closed orders.
+ * Orders an operator has already accepted are left to their client even past the deadline.
+ * Every batch is a short transaction of its own, so a large backlog is worked off without holding
+ * locks on many rows at once.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+@ConditionalOnProperty(name = "app.matching.expiry.enabled", havingValue = "true", matchIfMissing = true)
+public class MatchExpirySweeper {
+
+    private final OrdersRepository ordersRepository;
+    private final NewMatchedOrdersRepository newMatchedOrdersRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final MatchingMetrics matchingMetrics;
+    private final OrderStatusStream orderStatusStream;
+    private final DownstreamLimiter downstreamLimiter;
+    private final Clock clock;
+
+    @Value("${app.matching.expiry.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.matching.expiry.max-batches:100}")
+    private int maxBatches;
+
+    @Scheduled(fixedDelayString = "${app.matching.expiry.interval:PT5M}", initialDelayString = "${app.matching.expiry.interval:PT5M}")
+    public void sweep() {
+        LocalDateTime now = LocalDateTime.now(clock);
+        int orders = drain(matchingMetrics.expiryOrdersBatch(), () -> {
+            List<CancelledOrder> cancelled = ordersRepository.cancelExpiredOpenOrders(now, batchSize);
+            orderStatusStream.publishCancellations(cancelled);
+            return cancelled.size();
+        });
+        matchingMetrics.recordExpiredOrders(orders);
+        int matches = drain(matchingMetrics.expiryMatchesBatch(),
+                () -> newMatchedOrdersRepository.rejectStalePendingMatches(now, batchSize));
+        matchingMetrics.recordExpiredMatches(matches);
+        if (orders > 0 || matches > 0) {
+            log.info("Expiry sweep cancelled {} past-deadline orders and rejected {} stale pending matches", orders, matches);
+        }
+    }
+
+    private int drain(Timer batchTimer, IntSupplier batch) {
+        int total = 0;
+        for (int i = 0; i < maxBatches; i++) {
+            Integer updated = downstreamLimiter.call(Downstream.MATCHING_DATABASE, () ->
+                    batchTimer.record(() -> transactionTemplate.execute(status -> batch.getAsInt())));
+            int rows = updated == null ? 0 : updated;
+            total += rows;
+            if (rows < batchSize) {
+                break;
+            }
+        }
+        return total;
+    }
+}
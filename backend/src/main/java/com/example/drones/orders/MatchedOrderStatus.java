@@ -1,5 +1,9 @@
 package com.example.drones.orders;
 
+/**
+ * {@code EXPIRED} is set on both sides of an untouched match by matching, when the order leaves the operator's
+ * coverage, and only such matches are brought back if it returns; {@code REJECTED} is always someone's decision.
+ */
 public enum MatchedOrderStatus {
-    PENDING, ACCEPTED, REJECTED
+    PENDING, ACCEPTED, REJECTED, EXPIRED
 }
@@ -0,0 +1,19 @@
+package com.example.drones.orders;
+
+import java.util.UUID;
+
+public interface MatchedPair {
+    UUID getOperatorId();
+
+    UUID getOrderId();
+
+    /**
+     * Only returned when the pair was just inserted.
+     */
+    Double getDistanceKm();
+
+    /**
+     * Only returned when the pair was just inserted: how many times the match was revived, 0 for a new one.
+     */
+    Integer getRevivals();
+}
@@ -0,0 +1,49 @@
+package com.example.drones.orders;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface MatchingJobRepository extends JpaRepository<MatchingJobEntity, Long> {
+
+    @Query(value = """
+            SELECT * FROM matching_jobs
+            WHERE status = 'PENDING'
+              AND available_at <= :now
+            ORDER BY available_at, id
+            LIMIT 1
+            FOR UPDATE SKIP LOCKED
+            """, nativeQuery = true)
+    Optional<MatchingJobEntity> claimNext(LocalDateTime now);
+
+    @Query(value = """
+            SELECT * FROM matching_jobs
+            WHERE status = 'PENDING'
+              AND job_type = :type
+              AND attempts = 0
+              AND available_at <= :now
+            ORDER BY available_at, id
+            LIMIT :limit
+            FOR UPDATE SKIP LOCKED
+            """, nativeQuery = true)
+    List<MatchingJobEntity> claimFreshBatch(String type, LocalDateTime now, int limit);
+
+    /**
+     * Re-reads a job after its run was rolled back, skipping it when another worker has claimed it meanwhile.
+     */
+    @Query(value = "SELECT * FROM matching_jobs WHERE id = :id FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    Optional<MatchingJobEntity> lockById(Long id);
+
+    @Query(value = """
+            SELECT DISTINCT target_id FROM matching_jobs
+            WHERE status = 'PENDING'
+              AND job_type = :type
+              AND target_id = ANY(CAST(:targetIds AS uuid[]))
+              AND id <> ALL(CAST(:excludedIds AS bigint[]))
+            """, nativeQuery = true)
+    List<UUID> findPendingTargets(String type, UUID[] targetIds, Long[] excludedIds);
+}
@@ -0,0 +1,175 @@
+package com.example.drones.orders;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class MatchingJobService {
+
+    private static final Duration MAX_BACKOFF = Duration.ofMinutes(10);
+
+    private final MatchingJobRepository matchingJobRepository;
+    private final MatchingService matchingService;
+    private final TransactionTemplate transactionTemplate;
+    private final Clock clock;
+    private final MatchingMetrics matchingMetrics;
+
+    @Value("${app.matching.jobs.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${app.matching.jobs.retry-backoff:PT5S}")
+    private Duration retryBackoff;
+
+    @Value("${app.matching.jobs.batch-size:100}")
+    private int batchSize;
+
+    @Value("${app.matching.fan-out.wave-interval:PT30M}")
+    private Duration waveInterval;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueue(MatchingJobType type, UUID targetId) {
+        // Due at once: an idle worker polls only every poll-interval, and then claims every fresh order job that
+        // became due meanwhile, so a burst is still matched by one set-based statement without delaying it further.
+        schedule(type, targetId, LocalDateTime.now(clock));
+    }
+
+    private void schedule(MatchingJobType type, UUID targetId, LocalDateTime availableAt) {
+        matchingJobRepository.save(MatchingJobEntity.builder()
+                .type(type)
+                .targetId(targetId)
+                .availableAt(availableAt)
+                .createdAt(LocalDateTime.now(clock))
+                .build());
+    }
+
+    /**
+     * Claims and runs due jobs: a batch of fresh order jobs of one type when there are any, otherwise a single job.
+     * The rows stay locked until the transaction ends, so other workers skip them, and they are only
+     * deleted together with the match rows they produced. Retried jobs always run alone, so one failing
+     * order cannot keep failing a whole batch.
+     *
+     * @return false when no job was due
+     */
+    public boolean processNext() {
+        List<Long> claimedIds = new ArrayList<>();
+        try {
+            Boolean processed = transactionTemplate.execute(status -> {
+                List<MatchingJobEntity> jobs = claim();
+                if (jobs.isEmpty()) {
+                    return false;
+                }
+                LocalDateTime claimedAt = LocalDateTime.now(clock);
+                jobs.forEach(job -> {
+                    claimedIds.add(job.getId());
+                    matchingMetrics.recordQueueWait(job.getType(), Duration.between(job.getAvailableAt(), claimedAt));
+                });
+                run(jobs);
+                matchingJobRepository.deleteAllByIdInBatch(claimedIds);
+                return true;
+            });
+            return Boolean.TRUE.equals(processed);
+        } catch (RuntimeException e) {
+            if (claimedIds.isEmpty()) {
+                throw e;
+            }
+            log.error("Matching jobs {} failed", claimedIds, e);
+            transactionTemplate.executeWithoutResult(status -> claimedIds.forEach(id -> recordFailure(id, e)));
+            return true;
+        }
+    }
+
+    private List<MatchingJobEntity> claim() {
+        LocalDateTime now = LocalDateTime.now(clock);
+        for (MatchingJobType type : MatchingJobType.values()) {
+            if (!type.isBatched()) {
+                continue;
+            }
+            List<MatchingJobEntity> batch = matchingJobRepository.claimFreshBatch(type.name(), now, batchSize);
+            if (!batch.isEmpty()) {
+                return batch;
+            }
+        }
+        return matchingJobRepository.claimNext(now).map(List::of).orElse(List.of());
+    }
+
+    private void run(List<MatchingJobEntity> jobs) {
+        List<MatchingJobEntity> createdOrderJobs = new ArrayList<>();
+        List<UUID> createdOrders = new ArrayList<>();
+        List<UUID> updatedOrders = new ArrayList<>();
+        List<UUID> waitingOrders = new ArrayList<>();
+        for (MatchingJobEntity job : jobs) {
+            switch (job.getType()) {
+                case ORDER_CREATED -> {
+                    createdOrderJobs.add(job);
+                    createdOrders.add(job.getTargetId());
+                }
+                case ORDER_UPDATED -> updatedOrders.add(job.getTargetId());
+                case ORDER_NEXT_WAVE -> waitingOrders.add(job.getTargetId());
+                case OPERATOR_CREATED -> matchingService.matchOrdersToNewOperator(job.getTargetId());
+                case OPERATOR_UPDATED -> matchingService.rematchOperator(job.getTargetId());
+            }
+        }
+        Set<UUID> ordersWithCandidatesLeft = new HashSet<>();
+        if (!createdOrders.isEmpty()) {
+            ordersWithCandidatesLeft.addAll(matchingService.matchOperatorsToOrders(createdOrders));
+            LocalDateTime matchedAt = LocalDateTime.now(clock);
+            createdOrderJobs.forEach(job -> matchingMetrics.recordTimeToMatch(Duration.between(job.getCreatedAt(), matchedAt)));
+        }
+        if (!updatedOrders.isEmpty()) {
+            ordersWithCandidatesLeft.addAll(matchingService.rematchOrders(updatedOrders));
+        }
+        if (!waitingOrders.isEmpty()) {
+            ordersWithCandidatesLeft.addAll(matchingService.releaseNextWave(waitingOrders));
+        }
+        scheduleNextWaves(ordersWithCandidatesLeft, jobs);
+    }
+
+    // An order keeps a single pending next wave; the jobs being run are still pending until they are deleted.
+    private void scheduleNextWaves(Set<UUID> orderIds, List<MatchingJobEntity> runningJobs) {
+        if (orderIds.isEmpty()) {
+            return;
+        }
+        Set<UUID> alreadyScheduled = Set.copyOf(matchingJobRepository.findPendingTargets(
+                MatchingJobType.ORDER_NEXT_WAVE.name(),
+                orderIds.toArray(UUID[]::new),
+                runningJobs.stream().map(MatchingJobEntity::getId).toArray(Long[]::new)
+        ));
+        LocalDateTime nextWaveAt = LocalDateTime.now(clock).plus(waveInterval);
+        orderIds.stream()
+                .filter(orderId -> !alreadyScheduled.contains(orderId))
+                .forEach(orderId -> schedule(MatchingJobType.ORDER_NEXT_WAVE, orderId, nextWaveAt));
+    }
+
+    // The rollback released the job, so another worker may be running it or have deleted it by now; its outcome wins.
+    private void recordFailure(Long jobId, RuntimeException error) {
+        matchingJobRepository.lockById(jobId).ifPresent(job -> {
+            int attempts = job.getAttempts() + 1;
+            job.setAttempts(attempts);
+            job.setLastError(String.valueOf(error.getMessage()));
+            if (attempts >= maxAttempts) {
+                job.setStatus(MatchingJobStatus.FAILED);
+                log.error("Matching job {} ({} {}) gave up after {} attempts", jobId, job.getType(), job.getTargetId(), attempts);
+            } else {
+                Duration backoff = retryBackoff.multipliedBy(1L << Math.min(attempts - 1, 16));
+                job.setAvailableAt(LocalDateTime.now(clock).plus(backoff.compareTo(MAX_BACKOFF) > 0 ? MAX_BACKOFF : backoff));
+            }
+            matchingJobRepository.save(job);
+        });
+    }
+}
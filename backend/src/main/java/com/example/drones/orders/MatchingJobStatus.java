@@ -0,0 +1,6 @@
+package com.example.drones.orders;
+
+public enum MatchingJobStatus {
+    PENDING,
+    FAILED
+}
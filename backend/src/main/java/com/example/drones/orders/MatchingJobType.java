@@ -0,0 +1,19 @@
+package com.example.drones.orders;
+
+public enum MatchingJobType {
+    ORDER_CREATED(true),
+    ORDER_UPDATED(true),
+    ORDER_NEXT_WAVE(true),
+    OPERATOR_CREATED(false),
+    OPERATOR_UPDATED(false);
+
+    private final boolean batched;
+
+    MatchingJobType(boolean batched) {
+        this.batched = batched;
+    }
+
+    public boolean isBatched() {
+        return batched;
+    }
+}
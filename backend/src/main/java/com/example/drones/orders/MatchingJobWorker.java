@@ -0,0 +1,65 @@
+package com.example.drones.orders;
+
+import com.example.drones.common.concurrency.Downstream;
+import com.example.drones.common.concurrency.DownstreamLimiter;
+import com.example.drones.common.concurrency.ExecutorMetrics;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class MatchingJobWorker {
+
+    private final MatchingJobService matchingJobService;
+    private final DownstreamLimiter downstreamLimiter;
+    private final ExecutorMetrics executorMetrics;
+    private final ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+
+    @Value("${app.matching.jobs.workers:2}")
+    private int workers;
+
+    @Value("${app.matching.jobs.poll-interval:PT0.5S}")
+    private Duration pollInterval;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (workers <= 0) {
+            log.info("Matching workers are disabled");
+            return;
+        }
+        scheduler.setPoolSize(workers);
+        scheduler.setThreadNamePrefix("matching-worker-");
+        scheduler.setWaitForTasksToCompleteOnShutdown(true);
+        ExecutorMetrics.TaskMeters taskMeters = executorMetrics.instrument(scheduler, "matching-worker", "matching");
+        scheduler.initialize();
+        for (int i = 0; i < workers; i++) {
+            scheduler.scheduleWithFixedDelay(taskMeters.decorate(this::drain), pollInterval);
+        }
+        log.info("Started {} matching workers", workers);
+    }
+
+    @PreDestroy
+    public void stop() {
+        scheduler.shutdown();
+    }
+
+    private void drain() {
+        try {
+            boolean processed = true;
+            while (processed) {
+                processed = downstreamLimiter.call(Downstream.MATCHING_DATABASE, matchingJobService::processNext);
+            }
+        } catch (RuntimeException e) {
+            log.error("Matching worker failed to claim a job", e);
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.drones.orders;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Meters of the matching pipeline. All of them are named {@code matching.*}, which is what the admin
+ * matching stats endpoint lists.
+ */
+@Component
+public class MatchingMetrics {
+
+    public static final String PREFIX = "matching.";
+
+    private static final double[] PERCENTILES = {0.5, 0.95, 0.99};
+
+    private final Timer candidateQuery;
+    private final Timer matchInsert;
+    private final Timer notificationEnqueue;
+    private final Timer operatorBackfill;
+    private final Timer timeToMatch;
+    private final DistributionSummary matchesPerOrder;
+    private final Map<MatchingJobType, Timer> queueWait = new EnumMap<>(MatchingJobType.class);
+    private final Timer expiryOrdersBatch;
+    private final Timer expiryMatchesBatch;
+    private final DistributionSummary expiredOrders;
+    private final DistributionSummary expiredMatches;
+
+    public MatchingMetrics(MeterRegistry registry) {
+        candidateQuery = stageTimer(registry, "candidate_query");
+        matchInsert = stageTimer(registry, "match_insert");
+        notificationEnqueue = stageTimer(registry, "notification_enqueue");
+        operatorBackfill = stageTimer(registry, "operator_backfill");
+        // Delivery happens later, from the notification outbox, and shows up in the notifications.* meters.
+        timeToMatch = Timer.builder(PREFIX + "order.time_to_match")
+                .description("Time from enqueueing a new order until its first wave of operators was matched and queued for notification")
+                .publishPercentiles(PERCENTILES)
+                .register(registry);
+        matchesPerOrder = DistributionSummary.builder(PREFIX + "order.matches")
+                .description("Operators matched to a new order in its first wave")
+                .publishPercentiles(PERCENTILES)
+                .register(registry);
+        for (MatchingJobType type : MatchingJobType.values()) {
+            queueWait.put(type, Timer.builder(PREFIX + "queue.wait")
+                    .description("Time a due matching job waited for a worker")
+                    .tag("type", type.name())
+                    .publishPercentiles(PERCENTILES)
+                    .register(registry));
+        }
+        expiryOrdersBatch = expiryBatchTimer(registry, "orders");
+        expiryMatchesBatch = expiryBatchTimer(registry, "matches");
+        expiredOrders = expiryRowsSummary(registry, "orders");
+        expiredMatches = expiryRowsSummary(registry, "matches");
+    }
+
+    private static Timer stageTimer(MeterRegistry registry, String stage) {
+        return Timer.builder(PREFIX + "stage")
+                .description("Duration of one matching pipeline stage for a batch")
+                .tag("stage", stage)
+                .publishPercentiles(PERCENTILES)
+                .register(registry);
+    }
+
+    private static Timer expiryBatchTimer(MeterRegistry registry, String target) {
+        return Timer.builder(PREFIX + "expiry.batch")
+                .description("Duration of one expiry sweep batch, i.e. how long its row locks were held")
+                .tag("target", target)
+                .publishPercentiles(PERCENTILES)
+                .register(registry);
+    }
+
+    private static DistributionSummary expiryRowsSummary(MeterRegistry registry, String target) {
+        return DistributionSummary.builder(PREFIX + "expiry.rows")
+                .description("Rows closed by one expiry sweep")
+                .tag("target", target)
+                .publishPercentiles(PERCENTILES)
+                .register(registry);
+    }
+
+    public Timer candidateQuery() {
+        return candidateQuery;
+    }
+
+    public Timer matchInsert() {
+        return matchInsert;
+    }
+
+    public Timer notificationEnqueue() {
+        return notificationEnqueue;
+    }
+
+    public Timer operatorBackfill() {
+        return operatorBackfill;
+    }
+
+    public void recordTimeToMatch(Duration duration) {
+        timeToMatch.record(duration);
+    }
+
+    public void recordMatchesPerOrder(long matches) {
+        matchesPerOrder.record(matches);
+    }
+
+    public void recordQueueWait(MatchingJobType type, Duration duration) {
+        queueWait.get(type).record(duration.isNegative() ? Duration.ZERO : duration);
+    }
+
+    public Timer expiryOrdersBatch() {
+        return expiryOrdersBatch;
+    }
+
+    public Timer expiryMatchesBatch() {
+        return expiryMatchesBatch;
+    }
+
+    public void recordExpiredOrders(int rows) {
+        expiredOrders.record(rows);
+    }
+
+    public void recordExpiredMatches(int rows) {
+        expiredMatches.record(rows);
+    }
+}
@@ -1,17 +1,34 @@
 package com.example.drones.orders;
 
+import com.example.drones.common.GeoBoundingBox;
+import com.example.drones.common.GeoGrid;
+import com.example.drones.common.GeoPoint;
+import com.example.drones.notifications.NotificationMessage;
+import com.example.drones.notifications.NotificationOutbox;
+import com.example.drones.notifications.OrderSnapshot;
+import com.example.drones.notifications.RecipientSnapshot;
+import com.example.drones.operators.MatchedOrderStream;
 import com.example.drones.services.OperatorServicesEntity;
 import com.example.drones.services.OperatorServicesRepository;
 import com.example.drones.user.UserEntity;
 import com.example.drones.user.UserRepository;
+import com.example.drones.user.UserRole;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.util.Pair;
-import org.springframework.scheduling.annotation.Async;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -20,84 +37,254 @@ public class MatchingService {
 
     private final UserRepository userRepository;
     private final NewMatchedOrdersRepository newMatchedOrdersRepository;
-    private final EmailService emailService;
+    private final NotificationOutbox notificationOutbox;
     private final OperatorServicesRepository operatorServicesRepository;
+    private final OperatorSpatialIndex operatorSpatialIndex;
+    private final OrdersRepository ordersRepository;
+    private final EntityManager entityManager;
+    private final MatchingMetrics matchingMetrics;
+    private final GeoGrid geoGrid;
+    private final MatchedOrderStream matchedOrderStream;
 
-    @Async
+    @Value("${app.matching.fan-out.size:20}")
+    private int fanOut;
+
+    @Value("${app.matching.fan-out.rating-weight:0.3}")
+    private double ratingWeight;
+
+    @Value("${app.matching.operator-chunk-size:500}")
+    private int operatorChunkSize;
+
+    /**
+     * Matches new orders to their first wave of operators.
+     *
+     * @return the orders with covering operators left for a later wave
+     */
     @Transactional
-    public void matchOperatorsToOrder(OrdersEntity order) {
-        try {
-            Pair<Double, Double> orderCoords = parseCoordinates(order.getCoordinates());
-            double orderLat = orderCoords.getFirst();
-            double orderLon = orderCoords.getSecond();
-            List<UserEntity> matchingOperators = userRepository.findMatchingOperators(
-                    order.getService().getName(),
-                    orderLat,
-                    orderLon,
-                    order.getUser().getId()
-            );
+    public Set<UUID> matchOperatorsToOrders(List<UUID> orderIds) {
+        List<OrdersEntity> orders = ordersRepository.findAllOpenByIdIn(orderIds);
+        if (orders.isEmpty()) {
+            log.info("Skipping matching for orders {} which are no longer open", orderIds);
+            return Set.of();
+        }
 
-            log.info("Found {} matching operators for order {}", matchingOperators.size(), order.getId());
+        Wave wave = insertRankedMatches(orders, false);
+        List<MatchedPair> inserted = wave.inserted();
 
-            List<NewMatchedOrderEntity> matches = matchingOperators.stream()
-                    .map(operator -> NewMatchedOrderEntity.builder()
-                            .order(order)
-                            .operator(operator)
-                            .clientStatus(MatchedOrderStatus.PENDING)
-                            .operatorStatus(MatchedOrderStatus.PENDING)
-                            .build())
-                    .toList();
+        log.info("Matched {} orders in one batch, inserted {} new matches", orders.size(), inserted.size());
 
-            newMatchedOrdersRepository.saveAll(matches);
+        Map<UUID, Long> matchesByOrder = inserted.stream()
+                .collect(Collectors.groupingBy(MatchedPair::getOrderId, Collectors.counting()));
+        orders.forEach(order -> matchingMetrics.recordMatchesPerOrder(matchesByOrder.getOrDefault(order.getId(), 0L)));
 
-            matchingOperators.forEach(operator ->
-                    emailService.sendNewOrderNotification(operator, order)
-            );
+        notifyOperators(orders, inserted);
+        return wave.ordersWithCandidatesLeft();
+    }
 
-        } catch (Exception e) {
-            log.error("Error during matching operators for order {}", order.getId(), e);
+    /**
+     * Releases the next wave of operators for orders nobody has accepted yet.
+     *
+     * @return the orders with covering operators left for a later wave
+     */
+    @Transactional
+    public Set<UUID> releaseNextWave(List<UUID> orderIds) {
+        List<OrdersEntity> orders = ordersRepository.findAllOpenByIdIn(orderIds);
+        if (orders.isEmpty()) {
+            return Set.of();
         }
+
+        Wave wave = insertRankedMatches(orders, false);
+
+        log.info("Released next wave for {} orders, inserted {} new matches", orders.size(), wave.inserted().size());
+
+        notifyOperators(orders, wave.inserted());
+        return wave.ordersWithCandidatesLeft();
     }
 
-    @Async
+    /**
+     * Re-matches edited orders and tops them up to the fan-out cap.
+     *
+     * @return the orders with covering operators left for a later wave
+     */
     @Transactional
-    public void matchOrdersToNewOperator(UserEntity operator) {
-        Pair<Double, Double> operatorCoords = parseCoordinates(operator.getCoordinates());
-        double operatorLat = operatorCoords.getFirst();
-        double operatorLon = operatorCoords.getSecond();
+    public Set<UUID> rematchOrders(List<UUID> orderIds) {
+        List<OrdersEntity> orders = ordersRepository.findAllOpenByIdIn(orderIds);
+        if (orders.isEmpty()) {
+            log.info("Skipping re-matching for orders {} which are no longer open", orderIds);
+            return Set.of();
+        }
+        UUID[] openOrderIds = orders.stream().map(OrdersEntity::getId).toArray(UUID[]::new);
+
+        int retired = newMatchedOrdersRepository.retireUnqualifiedPendingMatches(openOrderIds);
+        newMatchedOrdersRepository.refreshDistancesForOrders(openOrderIds);
+        Wave wave = insertRankedMatches(orders, true);
+
+        log.info("Re-matched {} edited orders: {} new matches, {} pending matches retired", orders.size(), wave.inserted().size(), retired);
+
+        notifyOperators(orders, wave.inserted());
+        return wave.ordersWithCandidatesLeft();
+    }
+
+    @Transactional
+    public void matchOrdersToNewOperator(UUID operatorId) {
+        UserEntity operator = userRepository.findById(operatorId).orElse(null);
+        GeoPoint operatorLocation = operator != null ? GeoPoint.tryParse(operator.getCoordinates()) : null;
+        if (operator == null || operator.getRole() != UserRole.OPERATOR || operator.getRadius() == null || operatorLocation == null) {
+            log.info("Skipping matching for user {} which is not an active operator", operatorId);
+            return;
+        }
+
         List<String> operatorServices = operatorServicesRepository.findAllByOperatorId(operator.getId()).stream()
                 .map(OperatorServicesEntity::getServiceName)
                 .toList();
 
-        List<OrdersEntity> matchingOrders = userRepository.findMatchingOrdersForOperator(
-                operator.getId(),
-                operatorLat,
-                operatorLon,
+        int inserted = insertOperatorMatchesInChunks(operatorId, operatorLocation, operator.getRadius(), operatorServices);
+
+        log.info("Inserted {} new matches for operator {}", inserted, operatorId);
+    }
+
+    @Transactional
+    public void rematchOperator(UUID operatorId) {
+        UserEntity operator = userRepository.findById(operatorId).orElse(null);
+        if (operator == null) {
+            return;
+        }
+        GeoPoint operatorLocation = GeoPoint.tryParse(operator.getCoordinates());
+        if (operator.getRole() != UserRole.OPERATOR || operator.getRadius() == null || operatorLocation == null) {
+            int retired = newMatchedOrdersRepository.retireUncoveredPendingMatches(operatorId, 0, 0, 0, new String[0]);
+            log.info("Retired {} pending matches of user {} which is no longer a located operator", retired, operatorId);
+            return;
+        }
+
+        List<String> operatorServices = operatorServicesRepository.findAllByOperatorId(operatorId).stream()
+                .map(OperatorServicesEntity::getServiceName)
+                .toList();
+
+        int retired = newMatchedOrdersRepository.retireUncoveredPendingMatches(
+                operatorId,
+                operatorLocation.latitude(),
+                operatorLocation.longitude(),
                 operator.getRadius(),
-                operatorServices
+                operatorServices.toArray(String[]::new)
         );
+        newMatchedOrdersRepository.refreshDistancesForOperator(operatorId);
 
-        log.info("Found {} matching orders for operator {}", matchingOrders.size(), operator.getId());
+        int added = insertOperatorMatchesInChunks(operatorId, operatorLocation, operator.getRadius(), operatorServices);
 
-        List<NewMatchedOrderEntity> matches = matchingOrders.stream()
-                .map(order -> NewMatchedOrderEntity.builder()
-                        .order(order)
-                        .operator(operator)
-                        .clientStatus(MatchedOrderStatus.PENDING)
-                        .operatorStatus(MatchedOrderStatus.PENDING)
-                        .build())
-                .toList();
+        log.info("Re-matched operator {}: {} orders entered coverage, {} pending matches retired", operatorId, added, retired);
+    }
+
+    private int insertOperatorMatchesInChunks(UUID operatorId, GeoPoint location, int radius, List<String> serviceNames) {
+        int inserted = 0;
+        List<UUID> chunk = new ArrayList<>(operatorChunkSize);
+        Timer.Sample sample = Timer.start();
+        try (Stream<UUID> orderIds = userRepository.streamMatchingOrderIdsForOperator(
+                operatorId,
+                location.latitude(),
+                location.longitude(),
+                radius,
+                serviceNames,
+                GeoBoundingBox.around(location, radius)
+        )) {
+            Iterator<UUID> iterator = orderIds.iterator();
+            while (iterator.hasNext()) {
+                chunk.add(iterator.next());
+                if (chunk.size() == operatorChunkSize || !iterator.hasNext()) {
+                    inserted += newMatchedOrdersRepository.insertMatchesForOperator(operatorId, chunk.toArray(UUID[]::new)).size();
+                    chunk.clear();
+                    entityManager.clear();
+                }
+            }
+        } finally {
+            sample.stop(matchingMetrics.operatorBackfill());
+        }
+        return inserted;
+    }
+
+    private Wave insertRankedMatches(List<OrdersEntity> orders, boolean topUp) {
+        List<UUID> operatorIds = new ArrayList<>();
+        List<UUID> orderIds = new ArrayList<>();
+        matchingMetrics.candidateQuery().record(() -> collectCandidates(orders, operatorIds, orderIds));
+        if (operatorIds.isEmpty()) {
+            return new Wave(List.of(), Set.of());
+        }
+        UUID[] candidateOperators = operatorIds.toArray(UUID[]::new);
+        UUID[] candidateOrders = orderIds.toArray(UUID[]::new);
+        List<MatchedPair> inserted = matchingMetrics.matchInsert().record(() -> newMatchedOrdersRepository.insertRankedMatchPairs(
+                candidateOperators,
+                candidateOrders,
+                fanOut,
+                ratingWeight,
+                topUp
+        ));
+        // The cap may have left candidates out whatever was inserted, e.g. when top-up only filled a few free places.
+        Set<UUID> ordersWithCandidatesLeft = fanOut <= 0 ? Set.of()
+                : Set.copyOf(newMatchedOrdersRepository.findOrdersWithUnmatchedCandidates(candidateOperators, candidateOrders));
+        return new Wave(inserted, ordersWithCandidatesLeft);
+    }
 
-        newMatchedOrdersRepository.saveAll(matches);
+    private void collectCandidates(List<OrdersEntity> orders, List<UUID> operatorIds, List<UUID> orderIds) {
+        // The index is built once this node listens for operator changes; until then the stored coverage cells answer.
+        if (!operatorSpatialIndex.isReady()) {
+            List<UUID> ids = new ArrayList<>();
+            List<Long> cells = new ArrayList<>();
+            for (OrdersEntity order : orders) {
+                GeoPoint orderLocation = GeoPoint.tryParse(order.getCoordinates());
+                if (orderLocation != null) {
+                    ids.add(order.getId());
+                    cells.add(geoGrid.cellOf(orderLocation));
+                }
+            }
+            for (MatchedPair candidate : newMatchedOrdersRepository.findCandidatesForOrders(ids.toArray(UUID[]::new), cells.toArray(Long[]::new))) {
+                operatorIds.add(candidate.getOperatorId());
+                orderIds.add(candidate.getOrderId());
+            }
+            return;
+        }
+        for (OrdersEntity order : orders) {
+            GeoPoint orderLocation = GeoPoint.tryParse(order.getCoordinates());
+            if (orderLocation == null) {
+                log.warn("Order {} has invalid coordinates, skipping matching", order.getId());
+                continue;
+            }
+            List<UUID> covering = operatorSpatialIndex.findCoveringOperators(
+                    order.getService().getName(),
+                    orderLocation,
+                    order.getUserId()
+            );
+            for (UUID operatorId : covering) {
+                operatorIds.add(operatorId);
+                orderIds.add(order.getId());
+            }
+        }
     }
 
-    private Pair<Double, Double> parseCoordinates(String coordinates) {
-        String[] parts = coordinates.split(",");
-        if (parts.length != 2) {
-            throw new IllegalArgumentException("Invalid coordinates format");
+    private void notifyOperators(List<OrdersEntity> orders, List<MatchedPair> inserted) {
+        if (inserted.isEmpty()) {
+            return;
         }
-        double lat = Double.parseDouble(parts[0].trim());
-        double lon = Double.parseDouble(parts[1].trim());
-        return Pair.of(lat, lon);
+        // Each order and operator is read once, however many messages it appears in.
+        Map<UUID, OrderSnapshot> ordersById = orders.stream()
+                .collect(Collectors.toMap(OrdersEntity::getId, OrderSnapshot::of));
+        Map<UUID, RecipientSnapshot> operatorsById = userRepository.findAllById(
+                        inserted.stream().map(MatchedPair::getOperatorId).collect(Collectors.toSet())
+                ).stream()
+                .collect(Collectors.toMap(UserEntity::getId, RecipientSnapshot::of));
+
+        List<NotificationMessage> messages = inserted.stream()
+                .map(pair -> NotificationMessage.newOrder(
+                        operatorsById.get(pair.getOperatorId()), ordersById.get(pair.getOrderId()), pair.getRevivals()))
+                .toList();
+        matchingMetrics.notificationEnqueue().record(() -> notificationOutbox.enqueueAll(messages));
+        pushNewMatches(inserted);
+    }
+
+    private void pushNewMatches(List<MatchedPair> inserted) {
+        matchedOrderStream.publishNewMatches(
+                inserted.stream().map(MatchedPair::getOperatorId).toList(),
+                inserted.stream().map(MatchedPair::getOrderId).toList());
+    }
+
+    private record Wave(List<MatchedPair> inserted, Set<UUID> ordersWithCandidatesLeft) {
     }
-}
\ No newline at end of file
+}
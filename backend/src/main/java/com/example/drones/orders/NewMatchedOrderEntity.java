@@ -1,5 +1,6 @@
 package com.example.drones.orders;
 
+import com.example.drones.common.GeoPoint;
 import com.example.drones.user.UserEntity;
 import jakarta.persistence.*;
 import lombok.*;
@@ -38,4 +39,19 @@ public class NewMatchedOrderEntity {
     @JdbcTypeCode(SqlTypes.NAMED_ENUM)
     @Column(name = "client_status")
     private MatchedOrderStatus clientStatus;
+
+    @Column(name = "distance_km")
+    private Double distanceKm;
+
+    @PrePersist
+    void fillDistance() {
+        if (distanceKm != null || operator == null || order == null) {
+            return;
+        }
+        GeoPoint operatorLocation = GeoPoint.tryParse(operator.getCoordinates());
+        GeoPoint orderLocation = GeoPoint.tryParse(order.getCoordinates());
+        if (operatorLocation != null && orderLocation != null) {
+            distanceKm = operatorLocation.distanceTo(orderLocation);
+        }
+    }
 }
\ No newline at end of file
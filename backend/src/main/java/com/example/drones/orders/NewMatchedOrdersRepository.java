@@ -2,8 +2,10 @@ package com.example.drones.orders;
 
 import com.example.drones.operators.dto.MatchingOperatorDto;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -14,6 +16,193 @@ public interface NewMatchedOrdersRepository extends JpaRepository<NewMatchedOrde
 
     boolean existsByOrderIdAndClientStatus(UUID orderId, MatchedOrderStatus clientStatus);
 
+    /**
+     * Inserts at most {@code fanOut} of the given candidate pairs per order, best ranked first. The rank blends
+     * the distance as a fraction of the operator's radius with the operator's average rating (unrated operators
+     * count as 3 stars); {@code ratingWeight} is the share of the rating in the score. Pairs that are already
+     * matched are skipped, except retired matches (expired on both sides), which are revived as pending. Pairs
+     * the operator does not cover by role, service or radius are skipped too: the candidates may come from an
+     * index that has not caught up with the latest profile edit. With {@code topUp} the cap counts the order's
+     * live matches too, otherwise it bounds only the rows added by this call. A non-positive {@code fanOut}
+     * inserts every candidate.
+     */
+    @Query(value = """
+            WITH candidates AS (
+                SELECT p.operator_id, p.order_id,
+                       great_circle_km(o.latitude, o.longitude, u.latitude, u.longitude) AS distance_km,
+                       u.radius AS coverage_km,
+                       GREATEST(u.radius, 1) AS radius,
+                       COALESCE(rt.rating, 3.0) AS rating
+                FROM unnest(CAST(:operatorIds AS uuid[]), CAST(:orderIds AS uuid[])) AS p(operator_id, order_id)
+                JOIN orders o ON o.id = p.order_id
+                JOIN users u ON u.id = p.operator_id AND u.role = 'OPERATOR'::user_role
+                JOIN operator_service os ON os.operator_id = u.id AND os.service_name = o.service_name
+                LEFT JOIN LATERAL (SELECT AVG(r.stars) AS rating FROM reviews r WHERE r.target_id = u.id) rt ON true
+                WHERE u.id <> o.user_id
+                  AND NOT EXISTS (SELECT 1 FROM new_matched_orders m
+                                  WHERE m.order_id = p.order_id AND m.operator_id = p.operator_id
+                                    AND NOT (m.operator_status = 'EXPIRED'::matched_order_status
+                                             AND m.client_status = 'EXPIRED'::matched_order_status))
+            ),
+            ranked AS (
+                SELECT c.operator_id, c.order_id, c.distance_km,
+                       ROW_NUMBER() OVER (
+                           PARTITION BY c.order_id
+                           ORDER BY (1 - :ratingWeight) * c.distance_km / c.radius + :ratingWeight * (5 - c.rating) / 4, c.operator_id
+                       ) AS rn
+                FROM candidates c
+                WHERE c.distance_km <= c.coverage_km
+            )
+            INSERT INTO new_matched_orders (operator_id, order_id, distance_km)
+            SELECT r.operator_id, r.order_id, r.distance_km
+            FROM ranked r
+            WHERE :fanOut <= 0
+               OR r.rn <= :fanOut - CASE WHEN :topUp THEN (
+                      SELECT COUNT(*) FROM new_matched_orders m
+                      WHERE m.order_id = r.order_id
+                        AND m.operator_status NOT IN ('REJECTED'::matched_order_status, 'EXPIRED'::matched_order_status)
+                        AND m.client_status NOT IN ('REJECTED'::matched_order_status, 'EXPIRED'::matched_order_status)
+                  ) ELSE 0 END
+            ON CONFLICT (operator_id, order_id) DO UPDATE
+            SET operator_status = 'PENDING'::matched_order_status,
+                client_status   = 'PENDING'::matched_order_status,
+                distance_km     = EXCLUDED.distance_km,
+                revivals        = new_matched_orders.revivals + 1
+            WHERE new_matched_orders.operator_status = 'EXPIRED'::matched_order_status
+              AND new_matched_orders.client_status = 'EXPIRED'::matched_order_status
+            RETURNING operator_id AS operatorId, order_id AS orderId, distance_km AS distanceKm, revivals
+            """, nativeQuery = true)
+    List<MatchedPair> insertRankedMatchPairs(UUID[] operatorIds, UUID[] orderIds, int fanOut, double ratingWeight, boolean topUp);
+
+    /**
+     * Returns the orders for which some of the given candidate pairs qualify, by the same rules as
+     * {@link #insertRankedMatchPairs}, but are not matched yet. Expired matches count as unmatched, since a later
+     * wave would revive them.
+     */
+    @Query(value = """
+            SELECT DISTINCT p.order_id
+            FROM unnest(CAST(:operatorIds AS uuid[]), CAST(:orderIds AS uuid[])) AS p(operator_id, order_id)
+            JOIN orders o ON o.id = p.order_id
+            JOIN users u ON u.id = p.operator_id AND u.role = 'OPERATOR'::user_role
+            JOIN operator_service os ON os.operator_id = u.id AND os.service_name = o.service_name
+            WHERE u.id <> o.user_id
+              AND great_circle_km(o.latitude, o.longitude, u.latitude, u.longitude) <= u.radius
+              AND NOT EXISTS (SELECT 1 FROM new_matched_orders m
+                              WHERE m.order_id = p.order_id AND m.operator_id = p.operator_id
+                                AND NOT (m.operator_status = 'EXPIRED'::matched_order_status
+                                         AND m.client_status = 'EXPIRED'::matched_order_status))
+            """, nativeQuery = true)
+    List<UUID> findOrdersWithUnmatchedCandidates(UUID[] operatorIds, UUID[] orderIds);
+
+    @Query(value = """
+            SELECT c.operator_id AS operatorId, o.id AS orderId
+            FROM unnest(CAST(:orderIds AS uuid[]), CAST(:orderCells AS bigint[])) AS p(order_id, cell_key)
+            JOIN orders o ON o.id = p.order_id
+            JOIN operator_coverage_cells c ON c.cell_key = p.cell_key AND c.service_name = o.service_name
+            JOIN users u ON u.id = c.operator_id
+            WHERE u.role = 'OPERATOR'::user_role
+              AND u.id <> o.user_id
+              AND u.radius IS NOT NULL
+              AND great_circle_km(o.latitude, o.longitude, u.latitude, u.longitude) <= u.radius
+            """, nativeQuery = true)
+    List<MatchedPair> findCandidatesForOrders(UUID[] orderIds, Long[] orderCells);
+
+    /**
+     * Matches the operator to the given orders. A match that was retired earlier, expired on both sides,
+     * is brought back as pending; any other existing match, rejected ones included, is left alone.
+     *
+     * @return the orders that got a new or revived match
+     */
+    @Query(value = """
+            INSERT INTO new_matched_orders (operator_id, order_id, distance_km)
+            SELECT u.id, o.id,
+                   great_circle_km(o.latitude, o.longitude, u.latitude, u.longitude)
+            FROM unnest(CAST(:orderIds AS uuid[])) AS p(order_id)
+            JOIN orders o ON o.id = p.order_id
+            JOIN users u ON u.id = :operatorId
+            ON CONFLICT (operator_id, order_id) DO UPDATE
+            SET operator_status = 'PENDING'::matched_order_status,
+                client_status   = 'PENDING'::matched_order_status,
+                distance_km     = EXCLUDED.distance_km,
+                revivals        = new_matched_orders.revivals + 1
+            WHERE new_matched_orders.operator_status = 'EXPIRED'::matched_order_status
+              AND new_matched_orders.client_status = 'EXPIRED'::matched_order_status
+            RETURNING order_id
+            """, nativeQuery = true)
+    List<UUID> insertMatchesForOperator(UUID operatorId, UUID[] orderIds);
+
+    /**
+     * Expires both sides of the operator's untouched matches whose order left the operator's coverage.
+     * The rows stay, so the operator's history is kept, and {@link #insertMatchesForOperator} revives them
+     * if the order comes back into coverage.
+     */
+    @Modifying
+    @Query(value = """
+            UPDATE new_matched_orders nmo
+            SET operator_status = 'EXPIRED'::matched_order_status,
+                client_status   = 'EXPIRED'::matched_order_status
+            FROM orders o
+            WHERE nmo.order_id = o.id
+              AND nmo.operator_id = :operatorId
+              AND nmo.operator_status = 'PENDING'::matched_order_status
+              AND nmo.client_status = 'PENDING'::matched_order_status
+              AND o.status IN ('OPEN'::order_status, 'AWAITING_OPERATOR'::order_status)
+              AND NOT (
+                  o.service_name = ANY(CAST(:serviceNames AS varchar[]))
+                  AND o.latitude IS NOT NULL
+                  AND great_circle_km(:operatorLat, :operatorLon, o.latitude, o.longitude) <= :radius
+              )
+            """, nativeQuery = true)
+    int retireUncoveredPendingMatches(UUID operatorId, double operatorLat, double operatorLon, int radius, String[] serviceNames);
+
+    /**
+     * Expires both sides of the untouched matches of edited orders whose operator no longer covers them.
+     * {@link #insertRankedMatchPairs} revives them if a later edit brings the order back into coverage.
+     */
+    @Modifying
+    @Query(value = """
+            UPDATE new_matched_orders nmo
+            SET operator_status = 'EXPIRED'::matched_order_status,
+                client_status   = 'EXPIRED'::matched_order_status
+            FROM orders o, users u
+            WHERE nmo.order_id = o.id
+              AND nmo.operator_id = u.id
+              AND nmo.order_id = ANY(CAST(:orderIds AS uuid[]))
+              AND nmo.operator_status = 'PENDING'::matched_order_status
+              AND nmo.client_status = 'PENDING'::matched_order_status
+              AND NOT (
+                  u.role = 'OPERATOR'::user_role
+                  AND u.radius IS NOT NULL
+                  AND o.latitude IS NOT NULL
+                  AND EXISTS (SELECT 1 FROM operator_service os
+                              WHERE os.operator_id = u.id AND os.service_name = o.service_name)
+                  AND great_circle_km(o.latitude, o.longitude, u.latitude, u.longitude) <= u.radius
+              )
+            """, nativeQuery = true)
+    int retireUnqualifiedPendingMatches(UUID[] orderIds);
+
+    @Modifying
+    @Query(value = """
+            UPDATE new_matched_orders nmo
+            SET distance_km = great_circle_km(o.latitude, o.longitude, u.latitude, u.longitude)
+            FROM orders o, users u
+            WHERE nmo.order_id = o.id
+              AND nmo.operator_id = u.id
+              AND nmo.operator_id = :operatorId
+            """, nativeQuery = true)
+    int refreshDistancesForOperator(UUID operatorId);
+
+    @Modifying
+    @Query(value = """
+            UPDATE new_matched_orders nmo
+            SET distance_km = great_circle_km(o.latitude, o.longitude, u.latitude, u.longitude)
+            FROM orders o, users u
+            WHERE nmo.order_id = o.id
+              AND nmo.operator_id = u.id
+              AND nmo.order_id = ANY(CAST(:orderIds AS uuid[]))
+            """, nativeQuery = true)
+    int refreshDistancesForOrders(UUID[] orderIds);
+
     @Query("""
 
             SELECT new com.example.drones.operators.dto.MatchingOperatorDto(
@@ -34,4 +223,27 @@ public interface NewMatchedOrdersRepository extends JpaRepository<NewMatchedOrde
             
             """)
     List<MatchingOperatorDto> findInterestedOperatorByOrderId(UUID orderId);
+
+    /**
+     * Rejects the pending side of up to {@code limit} matches whose order is closed, or still OPEN past its deadline
+     * and so about to be cancelled by the sweep. Orders awaiting an operator's confirmation keep their matches.
+     * Rows locked by a running transaction are skipped and picked up by a later batch.
+     */
+    @Modifying
+    @Query(value = """
+            UPDATE new_matched_orders
+            SET operator_status = CASE WHEN operator_status = 'PENDING' THEN 'REJECTED' ELSE operator_status END,
+                client_status   = CASE WHEN client_status = 'PENDING' THEN 'REJECTED' ELSE client_status END
+            WHERE id IN (
+                SELECT nmo.id
+                FROM new_matched_orders nmo
+                JOIN orders o ON o.id = nmo.order_id
+                WHERE (nmo.operator_status = 'PENDING' OR nmo.client_status = 'PENDING')
+                  AND (o.status IN ('COMPLETED', 'CANCELLED') OR (o.status = 'OPEN' AND o.to_date < :now))
+                ORDER BY nmo.id
+                LIMIT :limit
+                FOR UPDATE OF nmo SKIP LOCKED
+            )
+            """, nativeQuery = true)
+    int rejectStalePendingMatches(LocalDateTime now, int limit);
 }
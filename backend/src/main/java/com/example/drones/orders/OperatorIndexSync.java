@@ -0,0 +1,83 @@
+package com.example.drones.orders;
+
+import com.example.drones.common.pubsub.ChannelListener;
+import com.example.drones.common.pubsub.DatabaseChannels;
+import com.example.drones.services.OperatorServicesEntity;
+import com.example.drones.services.OperatorServicesRepository;
+import com.example.drones.user.UserEntity;
+import com.example.drones.user.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps the {@link OperatorSpatialIndex} of every node in step with the database. A changed operator is announced
+ * on a database channel by the transaction that changes it, and once it commits every node reloads that operator.
+ * Whenever the channel is (re)joined the whole index is rebuilt, since announcements may have been missed.
+ */
+@Component
+@Slf4j
+public class OperatorIndexSync implements ChannelListener {
+
+    static final String CHANNEL = "operator_index";
+
+    private final OperatorSpatialIndex operatorSpatialIndex;
+    private final DatabaseChannels databaseChannels;
+    private final UserRepository userRepository;
+    private final OperatorServicesRepository operatorServicesRepository;
+
+    public OperatorIndexSync(OperatorSpatialIndex operatorSpatialIndex, DatabaseChannels databaseChannels,
+                             UserRepository userRepository, OperatorServicesRepository operatorServicesRepository) {
+        this.operatorSpatialIndex = operatorSpatialIndex;
+        this.databaseChannels = databaseChannels;
+        this.userRepository = userRepository;
+        this.operatorServicesRepository = operatorServicesRepository;
+        databaseChannels.listen(CHANNEL, this);
+    }
+
+    /**
+     * Announces the change in the current transaction, so other nodes hear of it only if it commits.
+     */
+    public void announce(UUID operatorId) {
+        databaseChannels.send(CHANNEL, operatorId.toString());
+    }
+
+    public void reload(UUID operatorId) {
+        UserEntity operator = userRepository.findById(operatorId).orElse(null);
+        List<String> services = operator == null ? List.of() : operatorServicesRepository.findAllByOperatorId(operatorId).stream()
+                .map(OperatorServicesEntity::getServiceName)
+                .toList();
+        operatorSpatialIndex.reloadOperator(operatorId, operator, services);
+    }
+
+    public void rebuild() {
+        List<UserEntity> operators = userRepository.findAllLocatedOperators();
+        Map<UUID, List<String>> servicesByOperator = operatorServicesRepository.findAllOfLocatedOperators().stream()
+                .collect(Collectors.groupingBy(
+                        service -> service.getOperator().getId(),
+                        Collectors.mapping(OperatorServicesEntity::getServiceName, Collectors.toList())
+                ));
+        operatorSpatialIndex.rebuild(operators, servicesByOperator);
+    }
+
+    @Override
+    public void onNotification(String payload) {
+        UUID operatorId;
+        try {
+            operatorId = UUID.fromString(payload);
+        } catch (IllegalArgumentException e) {
+            log.warn("Ignoring malformed operator index notification {}", payload);
+            return;
+        }
+        reload(operatorId);
+    }
+
+    @Override
+    public void onListening() {
+        rebuild();
+    }
+}
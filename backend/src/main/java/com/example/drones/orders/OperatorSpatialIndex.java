@@ -0,0 +1,160 @@
+package com.example.drones.orders;
+
+import com.example.drones.common.GeoGrid;
+import com.example.drones.common.GeoPoint;
+import com.example.drones.user.UserEntity;
+import com.example.drones.user.UserRole;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory grid of operator coverage areas, keyed by service. Every operator is registered in each
+ * grid cell its coverage circle's bounding box touches, so finding the operators that cover a point
+ * means reading a single cell and running the exact distance check only on the operators in it.
+ */
+@Component
+@Slf4j
+public class OperatorSpatialIndex {
+
+    private final GeoGrid grid;
+    private final Map<UUID, IndexedOperator> operators = new ConcurrentHashMap<>();
+    private final Map<String, Map<Long, Set<UUID>>> cellsByService = new ConcurrentHashMap<>();
+    private volatile boolean ready;
+
+    public OperatorSpatialIndex(GeoGrid grid) {
+        this.grid = grid;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public synchronized void rebuild(List<UserEntity> operatorEntities, Map<UUID, List<String>> servicesByOperator) {
+        operators.clear();
+        cellsByService.clear();
+        for (UserEntity operator : operatorEntities) {
+            Set<String> services = Set.copyOf(servicesByOperator.getOrDefault(operator.getId(), List.of()));
+            register(operator.getId(), locate(operator), services);
+        }
+        ready = true;
+        log.info("Operator spatial index built with {} operators", operators.size());
+    }
+
+    public synchronized void updateOperator(UserEntity operator) {
+        IndexedOperator previous = operators.get(operator.getId());
+        Set<String> services = previous != null ? previous.services() : Set.of();
+        unregister(operator.getId());
+        register(operator.getId(), locate(operator), services);
+    }
+
+    /**
+     * Replaces everything known about the operator with its stored state; a {@code null} operator is dropped.
+     */
+    public synchronized void reloadOperator(UUID operatorId, UserEntity operator, List<String> services) {
+        unregister(operatorId);
+        if (operator != null) {
+            register(operatorId, locate(operator), Set.copyOf(services));
+        }
+    }
+
+    public synchronized void removeOperator(UUID operatorId) {
+        unregister(operatorId);
+    }
+
+    public synchronized void addService(UUID operatorId, String serviceName) {
+        IndexedOperator previous = operators.get(operatorId);
+        Set<String> services = new HashSet<>(previous != null ? previous.services() : Set.of());
+        if (!services.add(serviceName)) {
+            return;
+        }
+        Placement placement = previous != null ? previous.placement() : null;
+        unregister(operatorId);
+        register(operatorId, placement, Set.copyOf(services));
+    }
+
+    public synchronized void removeService(UUID operatorId, String serviceName) {
+        IndexedOperator previous = operators.get(operatorId);
+        if (previous == null || !previous.services().contains(serviceName)) {
+            return;
+        }
+        Set<String> services = new HashSet<>(previous.services());
+        services.remove(serviceName);
+        unregister(operatorId);
+        register(operatorId, previous.placement(), Set.copyOf(services));
+    }
+
+    public List<UUID> findCoveringOperators(String serviceName, GeoPoint point, UUID excludedOperatorId) {
+        Map<Long, Set<UUID>> cells = cellsByService.get(serviceName);
+        if (cells == null) {
+            return List.of();
+        }
+        Set<UUID> candidates = cells.get(grid.cellOf(point));
+        if (candidates == null) {
+            return List.of();
+        }
+        List<UUID> covering = new ArrayList<>();
+        for (UUID candidateId : candidates) {
+            IndexedOperator candidate = operators.get(candidateId);
+            if (candidate == null || candidate.placement() == null || candidateId.equals(excludedOperatorId)) {
+                continue;
+            }
+            if (candidate.placement().location().distanceTo(point) <= candidate.placement().radius()) {
+                covering.add(candidateId);
+            }
+        }
+        return covering;
+    }
+
+    private Placement locate(UserEntity operator) {
+        if (operator.getRole() != UserRole.OPERATOR || operator.getRadius() == null) {
+            return null;
+        }
+        GeoPoint location = GeoPoint.tryParse(operator.getCoordinates());
+        return location != null ? new Placement(location, operator.getRadius()) : null;
+    }
+
+    private void register(UUID operatorId, Placement placement, Set<String> services) {
+        if (placement == null && services.isEmpty()) {
+            return;
+        }
+        List<Long> cells = placement != null ? grid.coveredCells(placement.location(), placement.radius()) : List.of();
+        operators.put(operatorId, new IndexedOperator(placement, services, cells));
+        for (String service : services) {
+            Map<Long, Set<UUID>> serviceCells = cellsByService.computeIfAbsent(service, s -> new ConcurrentHashMap<>());
+            for (Long cell : cells) {
+                serviceCells.computeIfAbsent(cell, c -> ConcurrentHashMap.newKeySet()).add(operatorId);
+            }
+        }
+    }
+
+    private void unregister(UUID operatorId) {
+        IndexedOperator previous = operators.remove(operatorId);
+        if (previous == null) {
+            return;
+        }
+        for (String service : previous.services()) {
+            Map<Long, Set<UUID>> serviceCells = cellsByService.get(service);
+            if (serviceCells == null) {
+                continue;
+            }
+            for (Long cell : previous.cells()) {
+                Set<UUID> members = serviceCells.get(cell);
+                if (members != null) {
+                    members.remove(operatorId);
+                    if (members.isEmpty()) {
+                        serviceCells.remove(cell);
+                    }
+                }
+            }
+        }
+    }
+
+    private record Placement(GeoPoint location, int radius) {
+    }
+
+    private record IndexedOperator(Placement placement, Set<String> services, List<Long> cells) {
+    }
+}
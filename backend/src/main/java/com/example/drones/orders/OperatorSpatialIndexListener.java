@@ -0,0 +1,79 @@
+package com.example.drones.orders;
+
+import com.example.drones.services.OperatorServicesEntity;
+import com.example.drones.user.UserEntity;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.UUID;
+
+// Instantiated by Hibernate through Spring's bean container; the index is absent in JPA-only test slices.
+// The callbacks run at flush time, so changes reach the local index only once their transaction commits.
+// Other nodes learn of them from the announcement, which is sent in the same transaction.
+public class OperatorSpatialIndexListener {
+
+    private final ObjectProvider<OperatorSpatialIndex> indexProvider;
+    private final ObjectProvider<OperatorIndexSync> syncProvider;
+
+    public OperatorSpatialIndexListener(ObjectProvider<OperatorSpatialIndex> indexProvider,
+                                        ObjectProvider<OperatorIndexSync> syncProvider) {
+        this.indexProvider = indexProvider;
+        this.syncProvider = syncProvider;
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void onSaved(Object entity) {
+        indexProvider.ifAvailable(index -> {
+            if (entity instanceof UserEntity user) {
+                // Most saves of users, e.g. registrations, token refreshes and profile edits, never move an operator.
+                if (user.placementChanged()) {
+                    announce(user.getId());
+                    afterCommit(() -> index.updateOperator(user));
+                }
+            } else if (entity instanceof OperatorServicesEntity operatorService) {
+                UUID operatorId = operatorService.getOperator().getId();
+                String serviceName = operatorService.getServiceName();
+                announce(operatorId);
+                afterCommit(() -> index.addService(operatorId, serviceName));
+            }
+        });
+    }
+
+    @PostRemove
+    public void onRemoved(Object entity) {
+        indexProvider.ifAvailable(index -> {
+            if (entity instanceof UserEntity user) {
+                UUID operatorId = user.getId();
+                announce(operatorId);
+                afterCommit(() -> index.removeOperator(operatorId));
+            } else if (entity instanceof OperatorServicesEntity operatorService) {
+                UUID operatorId = operatorService.getOperator().getId();
+                String serviceName = operatorService.getServiceName();
+                announce(operatorId);
+                afterCommit(() -> index.removeService(operatorId, serviceName));
+            }
+        });
+    }
+
+    private void announce(UUID operatorId) {
+        syncProvider.ifAvailable(sync -> sync.announce(operatorId));
+    }
+
+    private static void afterCommit(Runnable change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            change.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                change.run();
+            }
+        });
+    }
+}
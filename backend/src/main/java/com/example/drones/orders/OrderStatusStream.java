@@ -0,0 +1,56 @@
+package com.example.drones.orders;
+
+import com.example.drones.common.sse.SseEventRelay;
+import com.example.drones.common.sse.SseHub;
+import com.example.drones.orders.dto.OrderStatusChangedDto;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Pushes changes to a client's orders over an event stream, so the client only reloads its orders when one of them
+ * changed. Events are published in the caller's transaction and delivered once it commits.
+ */
+@Component
+public class OrderStatusStream {
+
+    public static final String ORDER_STATUS_EVENT = "order-status";
+
+    private final SseHub hub;
+    private final SseEventRelay relay;
+
+    public OrderStatusStream(
+            SseEventRelay relay,
+            MeterRegistry registry,
+            @Value("${app.events.buffer-size:32}") int bufferSize,
+            @Value("${app.events.heartbeat:PT25S}") Duration heartbeat,
+            @Value("${app.events.timeout:PT30M}") Duration timeout
+    ) {
+        this.hub = new SseHub("clients", bufferSize, heartbeat, timeout, registry);
+        this.relay = relay;
+        relay.register(hub);
+    }
+
+    public SseEmitter subscribe(UUID clientId) {
+        return hub.subscribe(clientId);
+    }
+
+    public void publishStatusChange(OrdersEntity order) {
+        relay.publish(hub, order.getUser().getId(), ORDER_STATUS_EVENT,
+                new OrderStatusChangedDto(order.getId(), order.getStatus()));
+    }
+
+    /**
+     * Tells each client that its order at the same position was cancelled, in a single round trip.
+     */
+    public void publishCancellations(List<CancelledOrder> cancelled) {
+        relay.publishAll(hub, ORDER_STATUS_EVENT,
+                cancelled.stream().map(CancelledOrder::getClientId).toList(),
+                cancelled.stream().map(order -> new OrderStatusChangedDto(order.getOrderId(), OrderStatus.CANCELLED)).toList());
+    }
+}
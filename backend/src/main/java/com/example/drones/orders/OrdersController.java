@@ -11,9 +11,11 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.UUID;
 
@@ -24,6 +26,7 @@ public class OrdersController {
 
     private final OrdersService ordersService;
     private final JwtService jwtService;
+    private final OrderStatusStream orderStatusStream;
 
     @PostMapping("/createOrder")
     @PreAuthorize("hasAnyRole('OPERATOR', 'CLIENT')")
@@ -85,6 +88,13 @@ public class OrdersController {
         return ResponseEntity.ok(response);
     }
 
+    @GetMapping(value = "/streamMyOrders", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasAnyRole('OPERATOR', 'CLIENT')")
+    public SseEmitter streamMyOrders() {
+        UUID userId = jwtService.extractUserId();
+        return orderStatusStream.subscribe(userId);
+    }
+
     @PatchMapping("/finishOrder/{orderId}")
     public ResponseEntity<OrderResponse> finishOrder(@PathVariable UUID orderId) {
         UUID currentUserId = jwtService.extractUserId();
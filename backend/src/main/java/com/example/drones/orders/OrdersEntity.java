@@ -1,5 +1,6 @@
 package com.example.drones.orders;
 
+import com.example.drones.common.GeoPoint;
 import com.example.drones.services.ServicesEntity;
 import com.example.drones.user.UserEntity;
 import jakarta.persistence.*;
@@ -44,6 +45,10 @@ public class OrdersEntity {
 
     private String coordinates;
 
+    private Double latitude;
+
+    private Double longitude;
+
     @Column(name = "from_date", nullable = false)
     private LocalDateTime fromDate;
 
@@ -64,4 +69,12 @@ public class OrdersEntity {
 
     @OneToMany(mappedBy = "order", fetch = FetchType.LAZY)
     private List<NewMatchedOrderEntity> matchedOrders;
+
+    @PrePersist
+    @PreUpdate
+    void syncLocation() {
+        GeoPoint location = GeoPoint.tryParse(coordinates);
+        latitude = location != null ? location.latitude() : null;
+        longitude = location != null ? location.longitude() : null;
+    }
 }
\ No newline at end of file
@@ -8,6 +8,8 @@ import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -24,6 +26,15 @@ public interface OrdersRepository extends JpaRepository<OrdersEntity, UUID>, Jpa
             """)
     Optional<OrdersEntity> findByIdWithUser(UUID orderId);
 
+    @Query("""
+            SELECT o
+            FROM OrdersEntity o
+            JOIN FETCH o.service
+            WHERE o.id IN :orderIds
+            AND o.status = 'OPEN'
+            """)
+    List<OrdersEntity> findAllOpenByIdIn(Collection<UUID> orderIds);
+
     @Query("""
             SELECT new com.example.drones.orders.dto.OrderResponseWithOperatorId(
                     o.id,
@@ -73,4 +84,20 @@ public interface OrdersRepository extends JpaRepository<OrdersEntity, UUID>, Jpa
             AND nmo.operatorStatus = 'ACCEPTED'
             """)
     Page<OrdersEntity> findInProgressAndAcceptedOrdersByOperatorId(UUID operatorId, Pageable pageable);
-}
\ No newline at end of file
+
+    @Query(value = """
+            UPDATE orders
+            SET status = 'CANCELLED'
+            WHERE id IN (
+                SELECT id
+                FROM orders
+                WHERE status = 'OPEN'
+                  AND to_date < :now
+                ORDER BY to_date
+                LIMIT :limit
+                FOR UPDATE SKIP LOCKED
+            )
+            RETURNING id AS orderId, user_id AS clientId
+            """, nativeQuery = true)
+    List<CancelledOrder> cancelExpiredOpenOrders(LocalDateTime now, int limit);
+}
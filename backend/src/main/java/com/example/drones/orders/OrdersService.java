@@ -2,6 +2,12 @@ package com.example.drones.orders;
 
 import com.example.drones.auth.exceptions.InvalidCredentialsException;
 import com.example.drones.common.config.exceptions.UserNotFoundException;
+import com.example.drones.notifications.NotificationMessage;
+import com.example.drones.notifications.NotificationOutbox;
+import com.example.drones.notifications.OrderSnapshot;
+import com.example.drones.notifications.RecipientSnapshot;
+import com.example.drones.operators.MatchedOrderStream;
+import com.example.drones.operators.dto.MatchStatusChangedDto;
 import com.example.drones.orders.dto.OrderRequest;
 import com.example.drones.orders.dto.OrderResponse;
 import com.example.drones.orders.dto.OrderResponseWithOperatorId;
@@ -23,6 +29,7 @@ import org.springframework.transaction.annotation.Transactional;
 import java.time.Clock;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Objects;
 import java.util.UUID;
 
 @Service
@@ -35,13 +42,15 @@ public class OrdersService {
     private final OrdersMapper ordersMapper;
     private final NewMatchedOrdersRepository newMatchedOrdersRepository;
     private final Clock clock;
-    private final MatchingService matchingService;
+    private final MatchingJobService matchingJobService;
     private final List<OrderStatus> statusesWithVisibleOperator = List.of(
             OrderStatus.IN_PROGRESS,
             OrderStatus.COMPLETED,
             OrderStatus.CANCELLED
     );
-    private final EmailService emailService;
+    private final NotificationOutbox notificationOutbox;
+    private final MatchedOrderStream matchedOrderStream;
+    private final OrderStatusStream orderStatusStream;
 
     @Transactional
     public OrderResponse createOrder(OrderRequest request, UUID userId) {
@@ -63,7 +72,7 @@ public class OrdersService {
         orderEntity.setUser(user);
         OrdersEntity savedOrder = ordersRepository.save(orderEntity);
 
-        matchingService.matchOperatorsToOrder(savedOrder);
+        matchingJobService.enqueue(MatchingJobType.ORDER_CREATED, savedOrder.getId());
 
         return ordersMapper.toResponse(savedOrder);
     }
@@ -81,6 +90,9 @@ public class OrdersService {
             throw new OrderIsNotEditableException();
         }
 
+        String previousServiceName = order.getService().getName();
+        String previousCoordinates = order.getCoordinates();
+
         if (request.getService() != null) {
             ServicesEntity newService = servicesRepository.findById(request.getService())
                     .orElseThrow(ServiceNotFoundException::new);
@@ -90,6 +102,11 @@ public class OrdersService {
         ordersMapper.updateEntityFromRequest(request, order);
         OrdersEntity updatedOrder = ordersRepository.save(order);
 
+        if (!Objects.equals(previousServiceName, updatedOrder.getService().getName())
+                || !Objects.equals(previousCoordinates, updatedOrder.getCoordinates())) {
+            matchingJobService.enqueue(MatchingJobType.ORDER_UPDATED, updatedOrder.getId());
+        }
+
         return ordersMapper.toResponse(updatedOrder);
     }
 
@@ -112,8 +129,7 @@ public class OrdersService {
                 throw new CannotAcceptOwnOrderException();
             }
 
-            match = newMatchedOrdersRepository.findByOrderIdAndOperatorId(orderId, currentUserId)
-                    .orElseThrow(MatchedOrderNotFoundException::new);
+            match = findActiveMatch(orderId, currentUserId);
 
             if (match.getOperatorStatus() == MatchedOrderStatus.ACCEPTED) {
                 throw new OrderAlreadyAcceptedByYouException();
@@ -123,15 +139,15 @@ public class OrdersService {
             if (foundOrder.getStatus() == OrderStatus.OPEN) {
                 foundOrder.setStatus(OrderStatus.AWAITING_OPERATOR);
             }
-            emailService.sendOrderAcceptedByOperatorNotification(match.getOrder().getUser(), foundOrder);
+            notificationOutbox.enqueue(NotificationMessage.orderAcceptedByOperator(
+                    RecipientSnapshot.of(foundOrder.getUser()), RecipientSnapshot.of(currentUser), OrderSnapshot.of(foundOrder)));
         } else {
             // Client accepts
             if (!foundOrder.getUser().getId().equals(currentUserId)) {
                 throw new NotOwnerOfOrderException();
             }
 
-            match = newMatchedOrdersRepository.findByOrderIdAndOperatorId(orderId, operatorIdParam)
-                    .orElseThrow(MatchedOrderNotFoundException::new);
+            match = findActiveMatch(orderId, operatorIdParam);
 
             if (match.getClientStatus() == MatchedOrderStatus.ACCEPTED) {
                 throw new OrderAlreadyAcceptedByYouException();
@@ -147,11 +163,14 @@ public class OrdersService {
             if (match.getOperatorStatus() == MatchedOrderStatus.ACCEPTED) {
                 foundOrder.setStatus(OrderStatus.IN_PROGRESS);
             }
-            emailService.sendOperatorAcceptedByClientNotification(match.getOperator(), foundOrder);
+            notificationOutbox.enqueue(NotificationMessage.operatorAcceptedByClient(
+                    RecipientSnapshot.of(match.getOperator()), OrderSnapshot.of(foundOrder)));
+            publishStatusChange(foundOrder, match);
         }
 
         newMatchedOrdersRepository.save(match);
         ordersRepository.save(foundOrder);
+        orderStatusStream.publishStatusChange(foundOrder);
         return ordersMapper.toResponse(foundOrder);
     }
 
@@ -171,8 +190,7 @@ public class OrdersService {
                 throw new NotOperatorException();
             }
 
-            match = newMatchedOrdersRepository.findByOrderIdAndOperatorId(orderId, currentUserId)
-                    .orElseThrow(MatchedOrderNotFoundException::new);
+            match = findActiveMatch(orderId, currentUserId);
 
             match.setOperatorStatus(MatchedOrderStatus.REJECTED);
         } else {
@@ -181,15 +199,27 @@ public class OrdersService {
                 throw new NotOwnerOfOrderException();
             }
 
-            match = newMatchedOrdersRepository.findByOrderIdAndOperatorId(orderId, operatorIdParam)
-                    .orElseThrow(MatchedOrderNotFoundException::new);
+            match = findActiveMatch(orderId, operatorIdParam);
 
             match.setClientStatus(MatchedOrderStatus.REJECTED);
+            publishStatusChange(foundOrder, match);
         }
 
         newMatchedOrdersRepository.save(match);
     }
 
+    // Expired matches were withdrawn by matching and only come back if the order returns into coverage.
+    private NewMatchedOrderEntity findActiveMatch(UUID orderId, UUID operatorId) {
+        return newMatchedOrdersRepository.findByOrderIdAndOperatorId(orderId, operatorId)
+                .filter(match -> match.getOperatorStatus() != MatchedOrderStatus.EXPIRED)
+                .orElseThrow(MatchedOrderNotFoundException::new);
+    }
+
+    private void publishStatusChange(OrdersEntity order, NewMatchedOrderEntity match) {
+        matchedOrderStream.publishStatusChange(match.getOperator().getId(), new MatchStatusChangedDto(
+                order.getId(), order.getStatus(), match.getClientStatus(), match.getOperatorStatus()));
+    }
+
     @Transactional
     public OrderResponse cancelOrder(UUID orderId, UUID currentUserId) {
         OrdersEntity order = ordersRepository.findById(orderId)
@@ -205,6 +235,7 @@ public class OrdersService {
 
         order.setStatus(OrderStatus.CANCELLED);
         OrdersEntity savedOrder = ordersRepository.save(order);
+        orderStatusStream.publishStatusChange(savedOrder);
         return ordersMapper.toResponse(savedOrder);
     }
 
@@ -242,6 +273,7 @@ public class OrdersService {
         order.setStatus(OrderStatus.COMPLETED);
 
         OrdersEntity savedOrder = ordersRepository.save(order);
+        orderStatusStream.publishStatusChange(savedOrder);
         return ordersMapper.toResponse(savedOrder);
     }
 }
\ No newline at end of file
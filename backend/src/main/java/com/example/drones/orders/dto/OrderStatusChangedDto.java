@@ -0,0 +1,12 @@
+package com.example.drones.orders.dto;
+
+import com.example.drones.orders.OrderStatus;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.UUID;
+
+public record OrderStatusChangedDto(
+        @JsonProperty("order_id") UUID orderId,
+        @JsonProperty("order_status") OrderStatus orderStatus
+) {
+}
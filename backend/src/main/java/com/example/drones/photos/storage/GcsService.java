@@ -1,5 +1,7 @@
 package com.example.drones.photos.storage;
 
+import com.example.drones.common.concurrency.Downstream;
+import com.example.drones.common.concurrency.DownstreamLimiter;
 import com.example.drones.common.config.BucketConfiguration;
 import com.google.cloud.storage.BlobId;
 import com.google.cloud.storage.BlobInfo;
@@ -19,6 +21,7 @@ public class GcsService implements FileStorage {
 
     private final Storage storage;
     private final BucketConfiguration bucketConfig;
+    private final DownstreamLimiter downstreamLimiter;
     private static final String publicUrlPrefix = "https://storage.googleapis.com/";
 
     @Override
@@ -29,7 +32,7 @@ public class GcsService implements FileStorage {
         BlobInfo blobInfo = BlobInfo.newBuilder(blobId)
                 .setContentType(file.getContentType())
                 .build();
-        storage.createFrom(blobInfo, file.getInputStream());
+        downstreamLimiter.run(Downstream.GCS, () -> storage.createFrom(blobInfo, file.getInputStream()));
         return publicUrlPrefix + bucketConfig.getBucketName() + "/" + path;
     }
 
@@ -37,7 +40,7 @@ public class GcsService implements FileStorage {
     public void deleteFile(String url) {
         String path = url.substring(publicUrlPrefix.length() + bucketConfig.getBucketName().length() + 1);
         BlobId blobId = BlobId.of(bucketConfig.getBucketName(), path);
-        storage.delete(blobId);
+        downstreamLimiter.run(Downstream.GCS, () -> storage.delete(blobId));
     }
 
 }
@@ -1,5 +1,6 @@
 package com.example.drones.services;
 
+import com.example.drones.orders.OperatorSpatialIndexListener;
 import com.example.drones.user.UserEntity;
 import jakarta.persistence.*;
 import lombok.Data;
@@ -10,6 +11,7 @@ import java.util.UUID;
 @Entity
 @Table(name = "operator_service",
         uniqueConstraints = @UniqueConstraint(columnNames = {"service_name", "operator_id"}))
+@EntityListeners(OperatorSpatialIndexListener.class)
 @Data
 @NoArgsConstructor
 public class OperatorServicesEntity {
@@ -2,6 +2,8 @@ package com.example.drones.services;
 
 import com.example.drones.user.UserEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 
 import java.util.List;
 import java.util.UUID;
@@ -11,4 +13,39 @@ public interface OperatorServicesRepository extends JpaRepository<OperatorServic
     void deleteAllByOperator(UserEntity operator);
 
     List<OperatorServicesEntity> findAllByOperatorId(UUID operatorId);
+
+    // Same operators as UserRepository.findAllLocatedOperators, in one query however many there are.
+    @Query("""
+            SELECT os FROM OperatorServicesEntity os
+            JOIN FETCH os.operator u
+            WHERE u.role = 'OPERATOR'
+              AND u.coordinates IS NOT NULL
+              AND u.radius IS NOT NULL
+            """)
+    List<OperatorServicesEntity> findAllOfLocatedOperators();
+
+    @Modifying
+    @Query(value = "DELETE FROM operator_coverage_cells WHERE operator_id = :operatorId", nativeQuery = true)
+    void deleteCoverage(UUID operatorId);
+
+    @Modifying
+    @Query(value = """
+            INSERT INTO operator_coverage_cells (cell_key, service_name, operator_id)
+            SELECT c.cell_key, os.service_name, os.operator_id
+            FROM operator_service os
+            CROSS JOIN unnest(CAST(:cellKeys AS bigint[])) AS c(cell_key)
+            WHERE os.operator_id = :operatorId
+            ON CONFLICT DO NOTHING
+            """, nativeQuery = true)
+    void insertCoverage(UUID operatorId, Long[] cellKeys);
+
+    @Query(value = """
+            SELECT u.id FROM users u
+            WHERE u.role = 'OPERATOR'::user_role
+              AND u.radius IS NOT NULL
+              AND u.latitude IS NOT NULL
+              AND EXISTS (SELECT 1 FROM operator_service os WHERE os.operator_id = u.id)
+              AND NOT EXISTS (SELECT 1 FROM operator_coverage_cells c WHERE c.operator_id = u.id)
+            """, nativeQuery = true)
+    List<UUID> findOperatorIdsMissingCoverage();
 }
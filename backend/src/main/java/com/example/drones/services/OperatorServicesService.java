@@ -1,20 +1,31 @@
 package com.example.drones.services;
 
+import com.example.drones.common.GeoGrid;
+import com.example.drones.common.GeoPoint;
 import com.example.drones.user.UserEntity;
+import com.example.drones.user.UserRepository;
+import com.example.drones.user.UserRole;
 import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.UUID;
 
 @Service
 @RequiredArgsConstructor
+@Slf4j
 public class OperatorServicesService {
 
     private final OperatorServicesRepository operatorServicesRepository;
     private final EntityManager entityManager;
+    private final GeoGrid geoGrid;
+    private final UserRepository userRepository;
 
     @Transactional
     public List<String> addOperatorServices(UserEntity operator, List<String> services) {
@@ -26,9 +37,25 @@ public class OperatorServicesService {
             OperatorServicesEntity savedEntity = operatorServicesRepository.save(entity);
             savedServices.add(savedEntity.getServiceName());
         }
+        refreshCoverage(operator);
         return savedServices;
     }
 
+    /**
+     * Rewrites the operator's rows in operator_coverage_cells: one row per grid cell of its coverage area
+     * and offered service. Must run after every change of the operator's coordinates, radius or services.
+     */
+    @Transactional
+    public void refreshCoverage(UserEntity operator) {
+        operatorServicesRepository.deleteCoverage(operator.getId());
+        GeoPoint location = GeoPoint.tryParse(operator.getCoordinates());
+        if (operator.getRole() != UserRole.OPERATOR || operator.getRadius() == null || location == null) {
+            return;
+        }
+        Long[] cells = geoGrid.coveredCells(location, operator.getRadius()).toArray(Long[]::new);
+        operatorServicesRepository.insertCoverage(operator.getId(), cells);
+    }
+
     @Transactional
     public List<String> editOperatorServices(UserEntity operator, List<String> services) {
         operatorServicesRepository.deleteAllByOperator(operator);
@@ -36,6 +63,18 @@ public class OperatorServicesService {
         return addOperatorServices(operator, services);
     }
 
+    // Fills in operators that got their profile outside this service, e.g. from the seed scripts.
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void backfillCoverage() {
+        List<UUID> missing = operatorServicesRepository.findOperatorIdsMissingCoverage();
+        if (missing.isEmpty()) {
+            return;
+        }
+        userRepository.findAllById(missing).forEach(this::refreshCoverage);
+        log.info("Built coverage cells for {} operators", missing.size());
+    }
+
     public List<String> getOperatorServices(UserEntity operator) {
         List<OperatorServicesEntity> entities = operatorServicesRepository.findAllByOperatorId(operator.getId());
         List<String> services = new ArrayList<>();
@@ -1,12 +1,18 @@
 package com.example.drones.user;
 
+import com.example.drones.common.GeoPoint;
 import com.example.drones.operators.PortfolioEntity;
+import com.example.drones.orders.OperatorSpatialIndexListener;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Email;
+import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.JdbcTypeCode;
 import org.hibernate.type.SqlTypes;
@@ -17,6 +23,7 @@ import java.util.UUID;
 
 @Entity
 @Table(name = "users")
+@EntityListeners(OperatorSpatialIndexListener.class)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -63,6 +70,12 @@ public class UserEntity {
     @Column(name = "coordinates")
     private String coordinates;
 
+    @Column(name = "latitude")
+    private Double latitude;
+
+    @Column(name = "longitude")
+    private Double longitude;
+
     @Column(name = "radius")
     private Integer radius;
 
@@ -70,6 +83,43 @@ public class UserEntity {
     @Column(name = "certificates")
     private List<String> certificates;
 
+    // Language tag of the user's email notifications, e.g. "en-GB"; Polish when absent.
+    @Column(name = "locale")
+    private String locale;
+
     @OneToOne(mappedBy = "operator")
     private PortfolioEntity portfolio;
+
+    // Role, coordinates and radius as last loaded or saved; null for a user that was never stored.
+    @ToString.Exclude
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private transient Placement storedPlacement;
+
+    /**
+     * Whether the user is or was an operator and its role, coordinates or radius differ from the stored ones.
+     * Entity listeners see the values stored before the current save, since they run before {@link #rememberPlacement}.
+     */
+    public boolean placementChanged() {
+        boolean operator = role == UserRole.OPERATOR || storedPlacement != null && storedPlacement.role() == UserRole.OPERATOR;
+        return operator && !new Placement(role, coordinates, radius).equals(storedPlacement);
+    }
+
+    @PrePersist
+    @PreUpdate
+    void syncLocation() {
+        GeoPoint location = GeoPoint.tryParse(coordinates);
+        latitude = location != null ? location.latitude() : null;
+        longitude = location != null ? location.longitude() : null;
+    }
+
+    @PostLoad
+    @PostPersist
+    @PostUpdate
+    void rememberPlacement() {
+        storedPlacement = new Placement(role, coordinates, radius);
+    }
+
+    private record Placement(UserRole role, String coordinates, Integer radius) {
+    }
 }
@@ -1,13 +1,17 @@
 package com.example.drones.user;
 
-import com.example.drones.orders.OrdersEntity;
+import com.example.drones.common.GeoBoundingBox;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 public interface UserRepository extends JpaRepository<UserEntity, UUID> {
     boolean existsByEmail(String email);
@@ -22,51 +26,36 @@ public interface UserRepository extends JpaRepository<UserEntity, UUID> {
             """)
     Optional<UserEntity> findByIdWithPortfolio(UUID userId);
 
-    @Query(value = """
+    @Query("""
             SELECT u FROM UserEntity u
-            LEFT JOIN FETCH u.portfolio
-            JOIN OperatorServicesEntity os ON u.id = os.operatorId
             WHERE u.role = 'OPERATOR'
-              AND u.id != :creatorId
-              AND os.serviceName = :serviceName
               AND u.coordinates IS NOT NULL
               AND u.radius IS NOT NULL
-              AND (
-                  6371 * acos(
-                      cos(radians(:orderLat)) * cos(radians(CAST(FUNCTION('SPLIT_PART', u.coordinates, ',', 1) AS double))) *
-                      cos(radians(CAST(FUNCTION('SPLIT_PART', u.coordinates, ',', 2) AS double)) - radians(:orderLon)) +
-                      sin(radians(:orderLat)) * sin(radians(CAST(FUNCTION('SPLIT_PART', u.coordinates, ',', 1) AS double)))
-                  )
-              ) <= u.radius
             """)
-    List<UserEntity> findMatchingOperators(
-            @Param("serviceName") String serviceName,
-            @Param("orderLat") double orderLat,
-            @Param("orderLon") double orderLon,
-            @Param("creatorId") UUID creatorId
-    );
+    List<UserEntity> findAllLocatedOperators();
 
     Optional<UserEntity> findByProviderUserId(String providerUserId);
 
+    // Forward-only cursor over order ids, so a large backlog is never materialized as managed entities.
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
     @Query("""
-            SELECT o FROM OrdersEntity o
+            SELECT o.id FROM OrdersEntity o
             WHERE o.user.id != :operatorId
               AND o.service.name IN :serviceNames
-              AND o.coordinates IS NOT NULL
-              AND o.status = 'OPEN' OR o.status = 'AWAITING_OPERATOR'
-              AND (
-                  6371 * acos(
-                      cos(radians(:operatorLat)) * cos(radians(CAST(FUNCTION('SPLIT_PART', o.coordinates, ',', 1) AS double))) *
-                      cos(radians(CAST(FUNCTION('SPLIT_PART', o.coordinates, ',', 2) AS double)) - radians(:operatorLon)) +
-                      sin(radians(:operatorLat)) * sin(radians(CAST(FUNCTION('SPLIT_PART', o.coordinates, ',', 1) AS double)))
-                  )
-              ) <= :operatorRadius
+              AND o.status IN ('OPEN', 'AWAITING_OPERATOR')
+              AND o.latitude BETWEEN :#{#box.minLatitude()} AND :#{#box.maxLatitude()}
+              AND o.longitude BETWEEN :#{#box.minLongitude()} AND :#{#box.maxLongitude()}
+              AND function('great_circle_km', :operatorLat, :operatorLon, o.latitude, o.longitude) <= :operatorRadius
         """)
-    List<OrdersEntity> findMatchingOrdersForOperator(
+    Stream<UUID> streamMatchingOrderIdsForOperator(
             @Param("operatorId") UUID operatorId,
             @Param("operatorLat") double operatorLat,
             @Param("operatorLon") double operatorLon,
             @Param("operatorRadius") Integer operatorRadius,
-            @Param("serviceNames") List<String> serviceNames
+            @Param("serviceNames") List<String> serviceNames,
+            @Param("box") GeoBoundingBox box
     );
 }
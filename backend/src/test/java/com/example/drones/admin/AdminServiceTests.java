@@ -1,19 +1,27 @@
 package com.example.drones.admin;
 
+import com.example.drones.admin.dto.ExecutorStatsDto;
+import com.example.drones.admin.dto.MatchingStatsDto;
 import com.example.drones.admin.dto.SystemStatsDto;
 import com.example.drones.admin.dto.UserDto;
 import com.example.drones.admin.exceptions.NoSuchUserException;
+import com.example.drones.common.concurrency.ExecutorMetrics;
+import com.example.drones.orders.MatchingMetrics;
 import com.example.drones.user.UserEntity;
 import com.example.drones.user.UserRole;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
+import java.time.Duration;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -195,4 +203,59 @@ public class AdminServiceTests {
         assertThat(stats.getUsers().getOperators()).isEqualTo(operatorsCount);
         verify(adminRepository).getSystemStatistics();
     }
+
+    @Test
+    public void givenRecordedMatchingMeters_whenGetMatchingStats_thenOnlyMatchingMetersAreReturned() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        AdminService adminService = new AdminService(adminRepository, adminMapper, meterRegistry);
+        MatchingMetrics matchingMetrics = new MatchingMetrics(meterRegistry);
+        matchingMetrics.candidateQuery().record(Duration.ofMillis(40));
+        matchingMetrics.candidateQuery().record(Duration.ofMillis(60));
+        matchingMetrics.recordMatchesPerOrder(7);
+        meterRegistry.counter("unrelated.counter").increment();
+
+        MatchingStatsDto stats = adminService.getMatchingStats();
+
+        assertThat(stats.getMeters()).allMatch(meter -> meter.getName().startsWith(MatchingMetrics.PREFIX));
+        MatchingStatsDto.MeterStats candidateQuery = stats.getMeters().stream()
+                .filter(meter -> "candidate_query".equals(meter.getTags().get("stage")))
+                .findFirst()
+                .orElseThrow();
+        assertThat(candidateQuery.getCount()).isEqualTo(2L);
+        assertThat(candidateQuery.getMean()).isEqualTo(50.0);
+        assertThat(candidateQuery.getMax()).isEqualTo(60.0);
+        assertThat(candidateQuery.getUnit()).isEqualTo("ms");
+        MatchingStatsDto.MeterStats matchesPerOrder = stats.getMeters().stream()
+                .filter(meter -> meter.getName().equals("matching.order.matches"))
+                .findFirst()
+                .orElseThrow();
+        assertThat(matchesPerOrder.getCount()).isEqualTo(1L);
+        assertThat(matchesPerOrder.getMax()).isEqualTo(7.0);
+    }
+
+    @Test
+    public void givenInstrumentedExecutor_whenGetExecutorStats_thenSummarisesItsMeters() throws Exception {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        AdminService adminService = new AdminService(adminRepository, adminMapper, meterRegistry);
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        new ExecutorMetrics(meterRegistry).instrument(executor, "notification", "email");
+        executor.initialize();
+        try {
+            executor.submit(() -> { }).get(1, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdown();
+        }
+        meterRegistry.counter("unrelated.counter").increment();
+
+        ExecutorStatsDto stats = adminService.getExecutorStats();
+
+        assertThat(stats.getExecutors()).hasSize(1);
+        ExecutorStatsDto.ExecutorStats notification = stats.getExecutors().getFirst();
+        assertThat(notification.getExecutor()).isEqualTo("notification");
+        assertThat(notification.getType()).isEqualTo("email");
+        assertThat(notification.getQueued()).isZero();
+        assertThat(notification.getRejected()).isZero();
+        assertThat(notification.getWait().getCount()).isEqualTo(1L);
+        assertThat(notification.getExecution().getUnit()).isEqualTo("ms");
+    }
 }
@@ -82,6 +82,24 @@ public class AuthIntegrationTests {
 
     }
 
+    @Test
+    void givenRegisterRequestWithLocale_whenRegister_thenLocaleIsSaved() {
+        RegisterRequest request = RegisterRequest.builder()
+                .displayName("testUser")
+                .password("password123")
+                .name("Test")
+                .surname("User")
+                .email("user123@gmail.com")
+                .phoneNumber("1234567890")
+                .locale("en-GB")
+                .build();
+
+        ResponseEntity<Void> response = testRestTemplate.postForEntity("/api/auth/register", request, Void.class);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+
+        assertThat(userRepository.findByEmail("user123@gmail.com").orElseThrow().getLocale()).isEqualTo("en-GB");
+    }
+
     @Test
     void givenInvalidRegisterRequest_whenRegister_thenReturnsBadRequest() {
         RegisterRequest request = RegisterRequest.builder()
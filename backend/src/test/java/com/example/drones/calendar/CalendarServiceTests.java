@@ -3,6 +3,7 @@ package com.example.drones.calendar;
 import com.example.drones.calendar.dto.SchedulableOrders;
 import com.example.drones.calendar.exceptions.OrderInProgressByOperatorIdNotFoundException;
 import com.example.drones.calendar.exceptions.UserIsNotConnectedToGoogleException;
+import com.example.drones.common.concurrency.DownstreamLimiter;
 import com.example.drones.common.config.exceptions.UserNotFoundException;
 import com.example.drones.orders.OrdersEntity;
 import com.example.drones.orders.OrdersMapper;
@@ -13,6 +14,7 @@ import com.example.drones.user.UserRole;
 import com.google.api.services.calendar.Calendar;
 import com.google.api.services.calendar.model.Event;
 import com.google.api.services.calendar.model.Events;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.jspecify.annotations.NonNull;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -27,6 +29,7 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.test.util.ReflectionTestUtils;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.*;
 
@@ -46,6 +49,10 @@ public class CalendarServiceTests {
     @Mock
     private OrdersMapper ordersMapper;
 
+    @Spy
+    private DownstreamLimiter downstreamLimiter =
+            new DownstreamLimiter(new SimpleMeterRegistry(), 1, 1, 1, 1, 1, Duration.ofSeconds(1));
+
     @Spy
     @InjectMocks
     private CalendarService calendarService;
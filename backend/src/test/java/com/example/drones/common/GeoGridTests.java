@@ -0,0 +1,47 @@
+package com.example.drones.common;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class GeoGridTests {
+
+    private final GeoGrid grid = new GeoGrid(0.25);
+
+    // The point at the given bearing whose great-circle distance from the center is exactly the radius.
+    private static GeoPoint destination(GeoPoint center, double radiusKm, double bearingDegrees) {
+        double angle = radiusKm / GeoPoint.EARTH_RADIUS_KM;
+        double lat1 = Math.toRadians(center.latitude());
+        double lon1 = Math.toRadians(center.longitude());
+        double bearing = Math.toRadians(bearingDegrees);
+        double lat2 = Math.asin(Math.sin(lat1) * Math.cos(angle) + Math.cos(lat1) * Math.sin(angle) * Math.cos(bearing));
+        double lon2 = lon1 + Math.atan2(Math.sin(bearing) * Math.sin(angle) * Math.cos(lat1),
+                Math.cos(angle) - Math.sin(lat1) * Math.sin(lat2));
+        return new GeoPoint(Math.toDegrees(lat2), Math.toDegrees(lon2));
+    }
+
+    @Test
+    public void givenPointsOnTheRadius_whenCoveredCells_thenTheirCellsAreCovered() {
+        for (GeoPoint center : List.of(new GeoPoint(52.2297, 21.0122), new GeoPoint(54.7, 18.4), new GeoPoint(70.0, 10.0), new GeoPoint(0.1, 0.1))) {
+            for (double radiusKm : List.of(5.0, 27.9, 150.0, 900.0)) {
+                List<Long> cells = grid.coveredCells(center, radiusKm);
+                for (int bearing = 0; bearing < 360; bearing++) {
+                    GeoPoint edge = destination(center, radiusKm * 0.9999, bearing);
+
+                    assertThat(cells).contains(grid.cellOf(edge));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void givenCircleAcrossTheAntimeridian_whenCoveredCells_thenCellsOnBothSidesAreCovered() {
+        GeoPoint center = new GeoPoint(10.0, 179.95);
+
+        List<Long> cells = grid.coveredCells(center, 30.0);
+
+        assertThat(cells).contains(grid.cellOf(new GeoPoint(10.0, 179.9)), grid.cellOf(new GeoPoint(10.0, -179.9)));
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.drones.common;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class GeoPointTests {
+
+    @Test
+    public void givenValidCoordinates_whenDistanceBetween_thenReturnsCorrectDistance() {
+        Double distance = GeoPoint.distanceBetween("52.2297,21.0122", "50.0614,19.9383");
+
+        assertThat(distance).isNotNull();
+        assertThat(distance).isGreaterThan(250.0);
+        assertThat(distance).isLessThan(260.0);
+    }
+
+    @Test
+    public void givenSameCoordinates_whenDistanceBetween_thenReturnsZero() {
+        Double distance = GeoPoint.distanceBetween("52.2297,21.0122", "52.2297,21.0122");
+
+        assertThat(distance).isNotNull();
+        assertThat(distance).isLessThan(0.1);
+    }
+
+    @Test
+    public void givenNullLocation1_whenDistanceBetween_thenReturnsNull() {
+        assertThat(GeoPoint.distanceBetween(null, "52.2297,21.0122")).isNull();
+    }
+
+    @Test
+    public void givenNullLocation2_whenDistanceBetween_thenReturnsNull() {
+        assertThat(GeoPoint.distanceBetween("52.2297,21.0122", null)).isNull();
+    }
+
+    @Test
+    public void givenInvalidCoordinatesFormat_whenDistanceBetween_thenReturnsNull() {
+        assertThat(GeoPoint.distanceBetween("52.2297", "52.2297,21.0122")).isNull();
+    }
+
+    @Test
+    public void givenEmptyCoordinates_whenDistanceBetween_thenReturnsNull() {
+        assertThat(GeoPoint.distanceBetween("", "52.2297,21.0122")).isNull();
+    }
+
+    @Test
+    public void givenCoordinatesWithSpaces_whenDistanceBetween_thenCalculatesCorrectly() {
+        Double distance = GeoPoint.distanceBetween(" 52.2297 , 21.0122 ", " 50.0614 , 19.9383 ");
+
+        assertThat(distance).isNotNull();
+        assertThat(distance).isGreaterThan(250.0);
+        assertThat(distance).isLessThan(260.0);
+    }
+
+    @Test
+    public void givenCloseCoordinates_whenDistanceBetween_thenReturnsSmallDistance() {
+        Double distance = GeoPoint.distanceBetween("52.2297,21.0122", "52.2300,21.0130");
+
+        assertThat(distance).isNotNull();
+        assertThat(distance).isLessThan(1.0);
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.drones.common.concurrency;
+
+import com.example.drones.common.config.exceptions.DownstreamBusyException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class DownstreamLimiterTests {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final DownstreamLimiter limiter = new DownstreamLimiter(registry, 1, 1, 1, 1, 1, Duration.ofMillis(50));
+
+    @Test
+    public void givenAllPermitsInUse_whenCall_thenFailsAfterAcquireTimeout() throws InterruptedException {
+        CountDownLatch holding = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread holder = Thread.ofVirtual().start(() -> limiter.run(Downstream.SMTP, () -> {
+            holding.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        holding.await();
+
+        assertThat(registry.get("downstream.permits.in_use").tag("downstream", "smtp").gauge().value()).isEqualTo(1);
+        assertThatThrownBy(() -> limiter.call(Downstream.SMTP, () -> "sent"))
+                .isInstanceOf(DownstreamBusyException.class);
+        assertThat(registry.get("downstream.rejected").tag("downstream", "smtp").counter().count()).isEqualTo(1);
+        assertThat(limiter.call(Downstream.GCS, () -> "uploaded")).isEqualTo("uploaded");
+
+        release.countDown();
+        holder.join();
+        assertThat(limiter.call(Downstream.SMTP, () -> "sent")).isEqualTo("sent");
+    }
+
+    @Test
+    public void givenFailingCall_whenCall_thenPermitIsReleased() {
+        assertThatThrownBy(() -> limiter.run(Downstream.GCS, () -> {
+            throw new IOException("bucket unavailable");
+        })).isInstanceOf(IOException.class);
+
+        assertThat(registry.get("downstream.permits.in_use").tag("downstream", "gcs").gauge().value()).isZero();
+    }
+
+    @Test
+    public void givenMatchingHoldsItsDatabasePermits_whenNotificationsCall_thenTheyAreNotBlocked() throws InterruptedException {
+        CountDownLatch holding = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread matching = Thread.ofVirtual().start(() -> limiter.run(Downstream.MATCHING_DATABASE, () -> {
+            holding.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        holding.await();
+
+        assertThat(limiter.call(Downstream.NOTIFICATION_DATABASE, () -> "leased")).isEqualTo("leased");
+        assertThatThrownBy(() -> limiter.call(Downstream.MATCHING_DATABASE, () -> "processed"))
+                .isInstanceOf(DownstreamBusyException.class);
+
+        release.countDown();
+        matching.join();
+    }
+}
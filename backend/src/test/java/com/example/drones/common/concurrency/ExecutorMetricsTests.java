@@ -0,0 +1,81 @@
+package com.example.drones.common.concurrency;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class ExecutorMetricsTests {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final ExecutorMetrics executorMetrics = new ExecutorMetrics(registry);
+
+    @Test
+    public void givenSaturatedExecutor_whenExecute_thenReportsActiveQueuedAndRejectedTasks() throws InterruptedException {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(1);
+        executorMetrics.instrument(executor, "notification", "email");
+        executor.initialize();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch finished = new CountDownLatch(2);
+        try {
+            executor.execute(() -> {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                finished.countDown();
+            });
+            started.await();
+            executor.execute(finished::countDown);
+
+            assertThatThrownBy(() -> executor.execute(() -> { }))
+                    .isInstanceOf(TaskRejectedException.class);
+            assertThat(registry.get("tasks.active").tag("executor", "notification").gauge().value()).isEqualTo(1);
+            assertThat(registry.get("tasks.queued").tag("executor", "notification").gauge().value()).isEqualTo(1);
+            assertThat(registry.get("tasks.rejected").tag("executor", "notification").tag("type", "email").counter().count())
+                    .isEqualTo(1);
+
+            release.countDown();
+            assertThat(finished.await(1, TimeUnit.SECONDS)).isTrue();
+        } finally {
+            executor.shutdown();
+        }
+        assertThat(executor.getThreadPoolExecutor().awaitTermination(1, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(registry.get("tasks.execution").tag("executor", "notification").timer().count()).isEqualTo(2);
+        assertThat(registry.get("tasks.wait").tag("executor", "notification").timer().count()).isEqualTo(2);
+        assertThat(registry.get("tasks.active").tag("executor", "notification").gauge().value()).isZero();
+    }
+
+    @Test
+    public void givenPeriodicTask_whenItRuns_thenWaitIsRecordedOnceAndExecutionEveryRun() throws InterruptedException {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        ExecutorMetrics.TaskMeters taskMeters = executorMetrics.instrument(scheduler, "matching-worker", "matching");
+        scheduler.initialize();
+        CountDownLatch runs = new CountDownLatch(3);
+        try {
+            scheduler.scheduleWithFixedDelay(taskMeters.decorate(runs::countDown), Duration.ofMillis(10));
+            assertThat(runs.await(1, TimeUnit.SECONDS)).isTrue();
+        } finally {
+            scheduler.getScheduledExecutor().shutdownNow();
+        }
+        assertThat(scheduler.getScheduledExecutor().awaitTermination(1, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(registry.get("tasks.wait").tag("executor", "matching-worker").timer().count()).isEqualTo(1);
+        assertThat(registry.get("tasks.execution").tag("executor", "matching-worker").timer().count()).isGreaterThanOrEqualTo(3);
+    }
+}
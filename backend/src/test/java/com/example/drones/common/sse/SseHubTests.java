@@ -0,0 +1,61 @@
+package com.example.drones.common.sse;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SseHubTests {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final SseHub hub = new SseHub("test", 2, Duration.ofMinutes(1), Duration.ofMinutes(1), registry);
+
+    @Test
+    public void givenFullBuffer_whenOffer_thenBufferIsReplacedByResync() {
+        SseConnection connection = new SseConnection(hub, UUID.randomUUID(), new SseEmitter(), 2, Duration.ofMinutes(1));
+
+        assertThat(connection.offer(new SseEvent("a", 1))).isTrue();
+        assertThat(connection.offer(new SseEvent("b", 2))).isTrue();
+        assertThat(connection.offer(new SseEvent("c", 3))).isFalse();
+        assertThat(connection.offer(new SseEvent("d", 4))).isTrue();
+    }
+
+    @Test
+    public void givenSubscriber_whenSubscribe_thenOnlyThatUserIsSubscribed() {
+        UUID subscriberId = UUID.randomUUID();
+        hub.subscribe(subscriberId);
+        hub.subscribe(subscriberId);
+
+        assertThat(hub.isSubscribed(subscriberId)).isTrue();
+        assertThat(hub.isSubscribed(UUID.randomUUID())).isFalse();
+        assertThat(registry.get("sse.connections").gauge().value()).isEqualTo(2);
+    }
+
+    @Test
+    public void givenSeveralStreamsOfOneUser_whenSubscribe_thenPresenceIsToldOnce() {
+        List<UUID> joined = new ArrayList<>();
+        hub.trackPresence(new SseHub.Presence() {
+            @Override
+            public void joined(UUID subscriberId) {
+                joined.add(subscriberId);
+            }
+
+            @Override
+            public void left(UUID subscriberId) {
+            }
+        });
+        UUID subscriberId = UUID.randomUUID();
+
+        hub.subscribe(subscriberId);
+        hub.subscribe(subscriberId);
+
+        assertThat(joined).containsExactly(subscriberId);
+        assertThat(hub.subscriberIds()).containsExactly(subscriberId);
+    }
+}
@@ -1,6 +1,12 @@
 package com.example.drones.emailService;
 
-import com.example.drones.orders.EmailService;
+import com.example.drones.common.concurrency.DownstreamLimiter;
+import com.example.drones.notifications.EmailService;
+import com.example.drones.notifications.EmailTemplates;
+import com.example.drones.notifications.NotificationEntity;
+import com.example.drones.notifications.NotificationMessage;
+import com.example.drones.notifications.OrderSnapshot;
+import com.example.drones.notifications.RecipientSnapshot;
 import com.example.drones.orders.OrderStatus;
 import com.example.drones.orders.OrdersEntity;
 import com.example.drones.services.ServicesEntity;
@@ -9,6 +15,7 @@ import com.example.drones.user.UserRole;
 import com.icegreen.greenmail.configuration.GreenMailConfiguration;
 import com.icegreen.greenmail.junit5.GreenMailExtension;
 import com.icegreen.greenmail.util.ServerSetupTest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import jakarta.mail.MessagingException;
 import jakarta.mail.internet.MimeMessage;
 import org.junit.jupiter.api.BeforeEach;
@@ -21,9 +28,13 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.JavaMailSenderImpl;
 import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.io.IOException;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -91,10 +102,27 @@ public class EmailServiceTests {
                 .build();
     }
 
+    private static long nextId = 1;
+
+    private NotificationEntity newOrderNotification(UserEntity operator, OrdersEntity order) {
+        NotificationMessage message = NotificationMessage.newOrder(RecipientSnapshot.of(operator), OrderSnapshot.of(order));
+        return NotificationEntity.builder()
+                .id(nextId++)
+                .type(message.type())
+                .sendKey(message.sendKey())
+                .recipientEmail(message.recipientEmail())
+                .payload(message.payload())
+                .build();
+    }
+
+    private void sendNewOrderNotification(UserEntity operator, OrdersEntity order) {
+        assertThat(emailService.sendAll(List.of(newOrderNotification(operator, order)))).isEmpty();
+    }
+
     @Test
     void givenOperator_whenSendNewOrderNotification_thenEmailIsSent() throws MessagingException, IOException {
         // When
-        emailService.sendNewOrderNotification(testOperator1, testOrder);
+        sendNewOrderNotification(testOperator1, testOrder);
 
         // Then
         assertThat(greenMail.getReceivedMessages()).hasSize(1);
@@ -107,10 +135,21 @@ public class EmailServiceTests {
         assertThat(receivedMessage.getContent().toString()).contains("Test description");
     }
 
+    @Test
+    void givenOperatorWithEnglishLocale_whenSendNewOrderNotification_thenEmailIsInEnglish() throws MessagingException, IOException {
+        testOperator1.setLocale("en-GB");
+
+        sendNewOrderNotification(testOperator1, testOrder);
+
+        MimeMessage receivedMessage = greenMail.getReceivedMessages()[0];
+        assertThat(receivedMessage.getSubject()).isEqualTo("New order: Laser Scanning");
+        assertThat(receivedMessage.getContent().toString()).contains("Hello Jan");
+    }
+
     @Test
     void givenOperator_whenSendEmail_thenEmailContainsGoogleMapsLink() throws MessagingException, IOException {
         // When
-        emailService.sendNewOrderNotification(testOperator1, testOrder);
+        sendNewOrderNotification(testOperator1, testOrder);
 
         // Then
         MimeMessage receivedMessage = greenMail.getReceivedMessages()[0];
@@ -122,8 +161,8 @@ public class EmailServiceTests {
     @Test
     void givenMultipleOperators_whenSendEmailsToAll_thenAllReceiveNotifications() throws MessagingException {
         // When
-        emailService.sendNewOrderNotification(testOperator1, testOrder);
-        emailService.sendNewOrderNotification(testOperator2, testOrder);
+        sendNewOrderNotification(testOperator1, testOrder);
+        sendNewOrderNotification(testOperator2, testOrder);
 
         // Then
         assertThat(greenMail.getReceivedMessages()).hasSize(2);
@@ -136,7 +175,7 @@ public class EmailServiceTests {
     @Test
     void givenOperatorWithDifferentName_whenSendEmail_thenEmailContainsCorrectName() throws MessagingException, IOException {
         // When
-        emailService.sendNewOrderNotification(testOperator2, testOrder);
+        sendNewOrderNotification(testOperator2, testOrder);
 
         // Then
         MimeMessage receivedMessage = greenMail.getReceivedMessages()[0];
@@ -147,21 +186,67 @@ public class EmailServiceTests {
     }
 
     @Test
-    void givenInvalidEmail_whenSendEmail_thenNoExceptionIsThrown() {
-        // Given
+    void givenBatchWithUnparsableRecipient_whenSendAll_thenOnlyThatNotificationFails() {
         UserEntity operatorWithInvalidEmail = UserEntity.builder()
                 .id(UUID.randomUUID())
-                .displayName("invalid_operator")
-                .email("invalid-email")
+                .email("Invalid <broken@test.com")
                 .name("Invalid")
-                .surname("Operator")
-                .role(UserRole.OPERATOR)
                 .build();
+        NotificationEntity first = newOrderNotification(testOperator1, testOrder);
+        NotificationEntity invalid = newOrderNotification(operatorWithInvalidEmail, testOrder);
+        NotificationEntity second = newOrderNotification(testOperator2, testOrder);
+
+        Map<Long, Exception> failures = emailService.sendAll(List.of(first, invalid, second));
+
+        assertThat(failures).containsOnlyKeys(invalid.getId());
+        assertThat(greenMail.getReceivedMessages()).hasSize(2);
+    }
+
+    @Test
+    void givenSnapshotsOfOneOrderBeforeAndAfterAnEdit_whenSendAll_thenEachEmailShowsItsOwnSnapshot() throws MessagingException, IOException {
+        NotificationEntity beforeEdit = newOrderNotification(testOperator1, testOrder);
+        testOrder.setDescription("Edited description");
+        NotificationEntity afterEdit = newOrderNotification(testOperator2, testOrder);
+
+        assertThat(emailService.sendAll(List.of(beforeEdit, afterEdit))).isEmpty();
+
+        MimeMessage[] messages = greenMail.getReceivedMessages();
+        assertThat(messages).hasSize(2);
+        assertThat(messages[0].getContent().toString()).contains("Test description").doesNotContain("Edited description");
+        assertThat(messages[1].getContent().toString()).contains("Edited description");
+    }
+
+    @Test
+    void givenDigestModeAndSeveralNewOrders_whenSendAll_thenOperatorGetsOneDigest() throws MessagingException, IOException {
+        OrdersEntity secondOrder = OrdersEntity.builder()
+                .id(UUID.randomUUID())
+                .title("Second Order")
+                .service(testService)
+                .coordinates("52.2400, 21.0200")
+                .fromDate(LocalDateTime.now().plusDays(1))
+                .toDate(LocalDateTime.now().plusDays(2))
+                .status(OrderStatus.OPEN)
+                .createdAt(LocalDateTime.now())
+                .build();
+        ReflectionTestUtils.setField(emailService, "digestEnabled", true);
+        try {
+            Map<Long, Exception> failures = emailService.sendAll(List.of(
+                    newOrderNotification(testOperator1, testOrder),
+                    newOrderNotification(testOperator1, secondOrder),
+                    newOrderNotification(testOperator2, testOrder)
+            ));
+
+            assertThat(failures).isEmpty();
+        } finally {
+            ReflectionTestUtils.setField(emailService, "digestEnabled", false);
+        }
 
-        // When & Then - nie powinno rzucić wyjątku dzięki try-catch w EmailService
-        org.junit.jupiter.api.Assertions.assertDoesNotThrow(() ->
-                emailService.sendNewOrderNotification(operatorWithInvalidEmail, testOrder)
-        );
+        MimeMessage[] messages = greenMail.getReceivedMessages();
+        assertThat(messages).hasSize(2);
+        assertThat(messages[0].getAllRecipients()[0].toString()).isEqualTo("operator1@test.com");
+        assertThat(messages[0].getSubject()).isEqualTo("Nowe zlecenia: 2");
+        assertThat(messages[0].getContent().toString()).contains("Test Order", "Second Order", "Witaj Jan");
+        assertThat(messages[1].getSubject()).isEqualTo("Nowe zlecenie: Laser Scanning");
     }
 
     @Test
@@ -182,7 +267,7 @@ public class EmailServiceTests {
                 .build();
 
         // When
-        emailService.sendNewOrderNotification(testOperator1, orderWithDifferentService);
+        sendNewOrderNotification(testOperator1, orderWithDifferentService);
 
         // Then
         MimeMessage receivedMessage = greenMail.getReceivedMessages()[0];
@@ -204,7 +289,7 @@ public class EmailServiceTests {
                 .build();
 
         // When
-        emailService.sendNewOrderNotification(testOperator1, orderWithSpaces);
+        sendNewOrderNotification(testOperator1, orderWithSpaces);
 
         // Then
         MimeMessage receivedMessage = greenMail.getReceivedMessages()[0];
@@ -227,7 +312,8 @@ public class EmailServiceTests {
 
         @Bean
         public EmailService emailService(JavaMailSender mailSender) {
-            return new EmailService(mailSender);
+            return new EmailService(mailSender, new EmailTemplates(),
+                    new DownstreamLimiter(new SimpleMeterRegistry(), 1, 1, 4, 1, 1, Duration.ofSeconds(30)));
         }
     }
 }
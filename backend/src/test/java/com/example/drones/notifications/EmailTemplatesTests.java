@@ -0,0 +1,55 @@
+package com.example.drones.notifications;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Locale;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class EmailTemplatesTests {
+
+    private final EmailTemplates emailTemplates = new EmailTemplates();
+
+    @Test
+    public void givenTemplateWithSlots_whenRender_thenValuesAreFilledInAndMissingOnesAreEmpty() {
+        EmailTemplate template = EmailTemplate.compile("Zlecenie {{title}} ({{ service }}){{missing}}.");
+
+        String rendered = template.render(Map.of("title", "Inspekcja", "service", "Mapping")::get);
+
+        assertThat(rendered).isEqualTo("Zlecenie Inspekcja (Mapping).");
+    }
+
+    @Test
+    public void givenTemplateFile_whenParse_thenGreetingIsSeparatedFromSharedBody() {
+        NotificationTemplate template = NotificationTemplate.parse("test",
+                "Subject: Nowe zlecenie: {{service}}\n\nWitaj {{recipientName}},\n\nTytuł: {{title}}\n");
+        Map<String, String> values = Map.of("service", "Mapping", "recipientName", "Jan", "title", "Dach");
+
+        assertThat(template.subject().render(values::get)).isEqualTo("Nowe zlecenie: Mapping");
+        assertThat(template.greeting().render(values::get)).isEqualTo("Witaj Jan,\n\n");
+        assertThat(template.body().render(values::get)).isEqualTo("Tytuł: Dach");
+    }
+
+    @Test
+    public void givenRecipientSlotOutsideGreeting_whenParse_thenRejected() {
+        assertThatThrownBy(() -> NotificationTemplate.parse("test", "Subject: Temat\n\nZlecenie\n\nDla {{recipientName}}\n"))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    public void givenLocaleWithoutVariant_whenGet_thenFallsBackToPolish() {
+        NotificationTemplate polish = emailTemplates.get(NotificationType.NEW_ORDER, EmailTemplates.DEFAULT_LOCALE);
+
+        assertThat(emailTemplates.get(NotificationType.NEW_ORDER, Locale.forLanguageTag("de-AT"))).isSameAs(polish);
+        assertThat(polish.subject().render(Map.of("service", "Mapping")::get)).isEqualTo("Nowe zlecenie: Mapping");
+    }
+
+    @Test
+    public void givenRegionalLocale_whenGet_thenFallsBackToItsLanguage() {
+        NotificationTemplate english = emailTemplates.get(NotificationType.NEW_ORDER, Locale.forLanguageTag("en-GB"));
+
+        assertThat(english.subject().render(Map.of("service", "Mapping")::get)).isEqualTo("New order: Mapping");
+    }
+}
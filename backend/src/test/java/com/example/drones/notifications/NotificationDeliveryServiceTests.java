@@ -0,0 +1,220 @@
+package com.example.drones.notifications;
+
+import com.example.drones.common.concurrency.DownstreamLimiter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mail.MailParseException;
+import org.springframework.mail.MailSendException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class NotificationDeliveryServiceTests {
+
+    private static final Clock CLOCK = Clock.fixed(Instant.parse("2026-01-01T10:00:00Z"), ZoneOffset.UTC);
+    private static final LocalDateTime NOW = LocalDateTime.now(CLOCK);
+
+    @Mock
+    private NotificationRepository notificationRepository;
+
+    @Mock
+    private EmailService emailService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private NotificationMetrics notificationMetrics;
+
+    private NotificationDeliveryService deliveryService;
+
+    @BeforeEach
+    public void setUp() {
+        createDeliveryService(new SmtpRateLimiter(CLOCK, 0, 0));
+    }
+
+    private void createDeliveryService(SmtpRateLimiter rateLimiter) {
+        deliveryService = new NotificationDeliveryService(notificationRepository, emailService,
+                new TransactionTemplate(transactionManager), rateLimiter, notificationMetrics,
+                new DownstreamLimiter(new SimpleMeterRegistry(), 1, 1, 1, 1, 1, Duration.ofSeconds(1)), CLOCK);
+        ReflectionTestUtils.setField(deliveryService, "batchSize", 20);
+        ReflectionTestUtils.setField(deliveryService, "lease", Duration.ofMinutes(5));
+        ReflectionTestUtils.setField(deliveryService, "maxAttempts", 3);
+        ReflectionTestUtils.setField(deliveryService, "retryBackoff", Duration.ofSeconds(30));
+        ReflectionTestUtils.setField(deliveryService, "maxBackoff", Duration.ofHours(1));
+    }
+
+    private NotificationEntity notification(long id, int attempts) {
+        return NotificationEntity.builder()
+                .id(id)
+                .type(NotificationType.NEW_ORDER)
+                .recipientEmail("operator@example.com")
+                .payload(Map.of())
+                .attempts(attempts)
+                .build();
+    }
+
+    private void enableDigest() {
+        ReflectionTestUtils.setField(deliveryService, "digestEnabled", true);
+    }
+
+    @Test
+    public void givenNothingDue_whenDeliverNext_thenReturnsZero() {
+        when(notificationRepository.leaseDue(NOW, NOW.plusMinutes(5), 20, false)).thenReturn(List.of());
+
+        assertThat(deliveryService.deliverNext()).isZero();
+        verifyNoInteractions(emailService);
+    }
+
+    @Test
+    public void givenDueNotification_whenSendSucceeds_thenMarkedSent() {
+        NotificationEntity notification = notification(1L, 1);
+        when(notificationRepository.leaseDue(NOW, NOW.plusMinutes(5), 20, false)).thenReturn(List.of(notification));
+        when(emailService.sendAll(List.of(notification))).thenReturn(Map.of());
+
+        assertThat(deliveryService.deliverNext()).isEqualTo(1);
+
+        verify(notificationRepository).markAllSent(new Long[]{1L}, NOW);
+    }
+
+    @Test
+    public void givenTransientFailure_whenDeliverNext_thenRescheduledWithBackoff() {
+        NotificationEntity notification = notification(1L, 2);
+        when(notificationRepository.leaseDue(NOW, NOW.plusMinutes(5), 20, false)).thenReturn(List.of(notification));
+        when(emailService.sendAll(List.of(notification))).thenReturn(Map.of(1L, new MailSendException("connection refused")));
+
+        deliveryService.deliverNext();
+
+        verify(notificationRepository).rescheduleAll(new Long[]{1L}, NOW.plusSeconds(60), "connection refused");
+        verify(notificationRepository, never()).markAllSent(any(), any());
+        verify(notificationRepository, never()).markDead(any(), any());
+    }
+
+    @Test
+    public void givenLastAttemptFails_whenDeliverNext_thenDeadLettered() {
+        NotificationEntity notification = notification(1L, 3);
+        when(notificationRepository.leaseDue(NOW, NOW.plusMinutes(5), 20, false)).thenReturn(List.of(notification));
+        when(emailService.sendAll(List.of(notification))).thenReturn(Map.of(1L, new MailSendException("connection refused")));
+
+        deliveryService.deliverNext();
+
+        verify(notificationRepository).markDead(1L, "connection refused");
+        verify(notificationRepository, never()).rescheduleAll(any(), any(), any());
+    }
+
+    @Test
+    public void givenOneFailureInBatch_whenDeliverNext_thenOthersAreMarkedSent() {
+        NotificationEntity failing = notification(1L, 1);
+        NotificationEntity healthy = notification(2L, 1);
+        when(notificationRepository.leaseDue(eq(NOW), eq(NOW.plusMinutes(5)), anyInt(), eq(false))).thenReturn(List.of(failing, healthy));
+        when(emailService.sendAll(List.of(failing, healthy))).thenReturn(Map.of(1L, new MailParseException("bad address")));
+
+        assertThat(deliveryService.deliverNext()).isEqualTo(2);
+
+        verify(notificationRepository).markDead(1L, "bad address");
+        verify(notificationRepository).markAllSent(new Long[]{2L}, NOW);
+    }
+
+    @Test
+    public void givenRateLimitBelowBatchSize_whenDeliverNext_thenLeasesOnlyPermittedAndReportsLag() {
+        createDeliveryService(new SmtpRateLimiter(CLOCK, 2, 0));
+        NotificationEntity first = notification(1L, 1);
+        NotificationEntity second = notification(2L, 1);
+        when(notificationRepository.leaseDue(NOW, NOW.plusMinutes(5), 2, false)).thenReturn(List.of(first, second));
+        when(emailService.sendAll(List.of(first, second))).thenReturn(Map.of());
+        when(notificationRepository.findOldestDueAt(NOW)).thenReturn(NOW.minusMinutes(3));
+
+        assertThat(deliveryService.deliverNext()).isEqualTo(2);
+        assertThat(deliveryService.deliverNext()).isZero();
+
+        verify(notificationRepository, times(1)).leaseDue(any(), any(), anyInt(), anyBoolean());
+        verify(notificationMetrics).recordThrottled(Duration.ofMinutes(3));
+    }
+
+    @Test
+    public void givenNothingDue_whenDeliverNext_thenUnusedPermitsAreReturned() {
+        createDeliveryService(new SmtpRateLimiter(CLOCK, 1, 0));
+        when(notificationRepository.leaseDue(NOW, NOW.plusMinutes(5), 1, false)).thenReturn(List.of());
+
+        assertThat(deliveryService.deliverNext()).isZero();
+        assertThat(deliveryService.deliverNext()).isZero();
+
+        verify(notificationRepository, times(2)).leaseDue(NOW, NOW.plusMinutes(5), 1, false);
+        verify(notificationRepository, never()).findOldestDueAt(any());
+        verify(notificationMetrics, times(2)).recordSendLag(Duration.ZERO);
+    }
+
+    @Test
+    public void givenDigestOfSeveralOrders_whenDeliverNext_thenItTakesOneToken() {
+        createDeliveryService(new SmtpRateLimiter(CLOCK, 2, 0));
+        enableDigest();
+        NotificationEntity first = notification(1L, 1);
+        NotificationEntity second = notification(2L, 1);
+        when(notificationRepository.leaseDue(NOW, NOW.plusMinutes(5), 2, true)).thenReturn(List.of(first, second));
+        when(notificationRepository.leaseDue(NOW, NOW.plusMinutes(5), 1, true)).thenReturn(List.of());
+        when(emailService.sendAll(List.of(first, second))).thenReturn(Map.of());
+
+        assertThat(deliveryService.deliverNext()).isEqualTo(2);
+        assertThat(deliveryService.deliverNext()).isZero();
+
+        verify(notificationRepository).markAllSent(new Long[]{1L, 2L}, NOW);
+        verify(notificationRepository).leaseDue(NOW, NOW.plusMinutes(5), 1, true);
+    }
+
+    @Test
+    public void givenDigestFails_whenDeliverNext_thenAllItsOrdersAreRetriedTogether() {
+        enableDigest();
+        NotificationEntity retried = notification(1L, 2);
+        NotificationEntity joinedLater = notification(2L, 1);
+        MailSendException error = new MailSendException("connection refused");
+        when(notificationRepository.leaseDue(NOW, NOW.plusMinutes(5), 20, true)).thenReturn(List.of(retried, joinedLater));
+        when(emailService.sendAll(List.of(retried, joinedLater))).thenReturn(Map.of(1L, error, 2L, error));
+
+        deliveryService.deliverNext();
+
+        verify(notificationRepository).rescheduleAll(new Long[]{1L, 2L}, NOW.plusSeconds(60), "connection refused");
+        verify(notificationRepository, never()).markDead(any(), any());
+    }
+
+    @Test
+    public void givenDailyQuotaUsedByOtherNodes_whenDeliverNext_thenLeasesOnlyWhatIsLeft() {
+        createDeliveryService(new SmtpRateLimiter(CLOCK, 0, 10));
+        when(notificationRepository.countEmailsSentSince(NOW.minusDays(1), false)).thenReturn(8L);
+        when(notificationRepository.leaseDue(NOW, NOW.plusMinutes(5), 2, false)).thenReturn(List.of());
+
+        assertThat(deliveryService.deliverNext()).isZero();
+
+        verify(notificationRepository).leaseDue(NOW, NOW.plusMinutes(5), 2, false);
+    }
+
+    @Test
+    public void givenDailyQuotaExhausted_whenDeliverNext_thenNothingIsLeased() {
+        createDeliveryService(new SmtpRateLimiter(CLOCK, 0, 10));
+        when(notificationRepository.countEmailsSentSince(NOW.minusDays(1), false)).thenReturn(10L);
+
+        assertThat(deliveryService.deliverNext()).isZero();
+
+        verify(notificationRepository, never()).leaseDue(any(), any(), anyInt(), anyBoolean());
+        verify(notificationMetrics).recordThrottled(Duration.ZERO);
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.drones.notifications;
+
+import com.example.drones.common.concurrency.ExecutorMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Clock;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class NotificationDispatcherTests {
+
+    @Mock
+    private NotificationDeliveryService deliveryService;
+
+    private ThreadPoolTaskExecutor executor;
+    private SimpleMeterRegistry registry;
+    private NotificationDispatcher dispatcher;
+
+    @BeforeEach
+    public void setUp() {
+        registry = new SimpleMeterRegistry();
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(1);
+        new ExecutorMetrics(registry).instrument(executor, "notification", "email");
+        executor.initialize();
+        dispatcher = new NotificationDispatcher(executor, deliveryService, new NotificationMetrics(registry, new SmtpRateLimiter(Clock.systemUTC(), 0, 0)));
+        ReflectionTestUtils.setField(dispatcher, "batchSize", 2);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    public void givenIds_whenDispatch_thenDeliversThemInBatches() {
+        dispatcher.dispatch(List.of(1L, 2L, 3L));
+
+        verify(deliveryService, timeout(1000)).deliverNow(List.of(1L, 2L));
+        verify(deliveryService, timeout(1000)).deliverNow(List.of(3L));
+        assertThat(registry.get("tasks.rejected").tag("executor", "notification").counter().count()).isZero();
+    }
+
+    @Test
+    public void givenFullExecutor_whenDispatch_thenLeavesNotificationsToOutboxWorkers() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        executor.execute(() -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        started.await();
+
+        dispatcher.dispatch(List.of(1L, 2L, 3L, 4L, 5L));
+        release.countDown();
+
+        verify(deliveryService, timeout(1000)).deliverNow(List.of(1L, 2L));
+        verify(deliveryService, after(200).never()).deliverNow(List.of(3L, 4L));
+        verify(deliveryService, never()).deliverNow(List.of(5L));
+        assertThat(registry.get("tasks.rejected").tag("executor", "notification").counter().count()).isEqualTo(2);
+        assertThat(registry.get("notifications.spilled").counter().count()).isEqualTo(3);
+    }
+}
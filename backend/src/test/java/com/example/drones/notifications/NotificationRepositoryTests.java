@@ -0,0 +1,105 @@
+package com.example.drones.notifications;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.test.context.ActiveProfiles;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Testcontainers
+@ActiveProfiles("test")
+class NotificationRepositoryTests {
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:17");
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2026, 1, 1, 10, 0);
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private NotificationEntity enqueue(String sendKey, NotificationType type, String recipient, LocalDateTime dueAt) {
+        return notificationRepository.saveAndFlush(NotificationEntity.builder()
+                .sendKey(sendKey)
+                .type(type)
+                .recipientEmail(recipient)
+                .payload(Map.of())
+                .availableAt(dueAt)
+                .createdAt(dueAt)
+                .build());
+    }
+
+    private void sent(String sendKey, NotificationType type, String recipient, LocalDateTime sentAt) {
+        NotificationEntity notification = enqueue(sendKey, type, recipient, sentAt);
+        notification.setStatus(NotificationStatus.SENT);
+        notification.setSentAt(sentAt);
+        notificationRepository.saveAndFlush(notification);
+    }
+
+    @Test
+    void givenDigestMode_whenLeaseDueForOneEmail_thenWholeDigestOfTheOldestRecipientIsLeased() {
+        enqueue("a-1", NotificationType.NEW_ORDER, "a@test.com", NOW.minusMinutes(10));
+        enqueue("a-2", NotificationType.NEW_ORDER, "a@test.com", NOW.minusMinutes(10));
+        enqueue("a-3", NotificationType.NEW_ORDER, "a@test.com", NOW.minusMinutes(1));
+        enqueue("b-1", NotificationType.NEW_ORDER, "b@test.com", NOW.minusMinutes(5));
+        // The lease returns fresh rows, not the instances saved above.
+        entityManager.clear();
+
+        List<NotificationEntity> leased = notificationRepository.leaseDue(NOW, NOW.plusMinutes(5), 1, true);
+
+        assertThat(leased).extracting(NotificationEntity::getSendKey).containsExactlyInAnyOrder("a-1", "a-2", "a-3");
+        assertThat(leased).allSatisfy(notification -> {
+            assertThat(notification.getAttempts()).isEqualTo(1);
+            assertThat(notification.getAvailableAt()).isEqualTo(NOW.plusMinutes(5));
+        });
+    }
+
+    @Test
+    void givenDigestMode_whenLeaseDue_thenOtherNotificationsAreEmailsOfTheirOwn() {
+        enqueue("a-order", NotificationType.NEW_ORDER, "a@test.com", NOW.minusMinutes(10));
+        enqueue("a-accepted-1", NotificationType.ORDER_ACCEPTED_BY_OPERATOR, "a@test.com", NOW.minusMinutes(9));
+        enqueue("a-accepted-2", NotificationType.ORDER_ACCEPTED_BY_OPERATOR, "a@test.com", NOW.minusMinutes(8));
+
+        List<NotificationEntity> leased = notificationRepository.leaseDue(NOW, NOW.plusMinutes(5), 2, true);
+
+        assertThat(leased).extracting(NotificationEntity::getSendKey).containsExactlyInAnyOrder("a-order", "a-accepted-1");
+    }
+
+    @Test
+    void givenDigestModeOff_whenLeaseDue_thenEachNotificationIsAnEmail() {
+        enqueue("a-1", NotificationType.NEW_ORDER, "a@test.com", NOW.minusMinutes(10));
+        enqueue("a-2", NotificationType.NEW_ORDER, "a@test.com", NOW.minusMinutes(9));
+        enqueue("a-3", NotificationType.NEW_ORDER, "a@test.com", NOW.plusMinutes(1));
+
+        List<NotificationEntity> leased = notificationRepository.leaseDue(NOW, NOW.plusMinutes(5), 5, false);
+
+        assertThat(leased).extracting(NotificationEntity::getSendKey).containsExactlyInAnyOrder("a-1", "a-2");
+    }
+
+    @Test
+    void givenSentDigest_whenCountEmailsSentSince_thenDigestCountsOnce() {
+        sent("a-1", NotificationType.NEW_ORDER, "a@test.com", NOW.minusHours(1));
+        sent("a-2", NotificationType.NEW_ORDER, "a@test.com", NOW.minusHours(1));
+        sent("a-accepted", NotificationType.ORDER_ACCEPTED_BY_OPERATOR, "a@test.com", NOW.minusHours(1));
+        sent("b-1", NotificationType.NEW_ORDER, "b@test.com", NOW.minusHours(1));
+        sent("c-1", NotificationType.NEW_ORDER, "c@test.com", NOW.minusDays(2));
+
+        assertThat(notificationRepository.countEmailsSentSince(NOW.minusDays(1), true)).isEqualTo(3);
+        assertThat(notificationRepository.countEmailsSentSince(NOW.minusDays(1), false)).isEqualTo(4);
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.drones.notifications;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SmtpRateLimiterTests {
+
+    private final MutableClock clock = new MutableClock(Instant.parse("2026-01-01T10:00:00Z"));
+
+    @Test
+    public void givenBurstAbovePerSecondLimit_whenTryAcquire_thenGrantsOnlyTheBucket() {
+        SmtpRateLimiter limiter = new SmtpRateLimiter(clock, 5, 0);
+
+        assertThat(limiter.tryAcquireUpTo(20, 0)).isEqualTo(5);
+        assertThat(limiter.tryAcquireUpTo(20, 0)).isZero();
+
+        clock.advance(Duration.ofMillis(500));
+        assertThat(limiter.tryAcquireUpTo(20, 0)).isEqualTo(2);
+    }
+
+    @Test
+    public void givenDailyQuotaPartlyUsedByAllNodes_whenTryAcquire_thenGrantsOnlyWhatIsLeft() {
+        SmtpRateLimiter limiter = new SmtpRateLimiter(clock, 100, 10);
+
+        assertThat(limiter.tryAcquireUpTo(20, 7)).isEqualTo(3);
+        assertThat(limiter.dailyRemaining()).isEqualTo(3);
+
+        assertThat(limiter.tryAcquireUpTo(20, 12)).isZero();
+        assertThat(limiter.dailyRemaining()).isZero();
+    }
+
+    @Test
+    public void givenUnusedPermits_whenReleased_thenAvailableAgain() {
+        SmtpRateLimiter limiter = new SmtpRateLimiter(clock, 5, 100);
+
+        assertThat(limiter.tryAcquireUpTo(5, 0)).isEqualTo(5);
+        limiter.release(3);
+
+        assertThat(limiter.tryAcquireUpTo(5, 2)).isEqualTo(3);
+        assertThat(limiter.dailyRemaining()).isEqualTo(98);
+    }
+
+    @Test
+    public void givenNoLimits_whenTryAcquire_thenGrantsEverything() {
+        SmtpRateLimiter limiter = new SmtpRateLimiter(clock, 0, 0);
+
+        assertThat(limiter.tryAcquireUpTo(1000, 5000)).isEqualTo(1000);
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant instant;
+
+        private MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        private void advance(Duration duration) {
+            instant = instant.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
@@ -28,7 +28,6 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.transaction.support.TransactionSynchronizationManager;
 
-import java.lang.reflect.Method;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -59,6 +58,8 @@ public class OperatorsServiceTests {
     private OrdersMapper ordersMapper;
     @Mock
     private com.example.drones.reviews.ReviewsRepository reviewsRepository;
+    @Mock
+    private MatchingJobService matchingJobService;
 
     @InjectMocks
     private OperatorsService service;
@@ -98,6 +99,7 @@ public class OperatorsServiceTests {
             verify(userRepository).save(any(UserEntity.class));
             verify(operatorServicesService).addOperatorServices(any(UserEntity.class), eq(operatorDto.services()));
             verify(operatorMapper).toOperatorProfileDto(any(UserEntity.class), eq(operatorDto.services()));
+            verify(matchingJobService).enqueue(MatchingJobType.OPERATOR_CREATED, userId);
 
             assertThat(user.getRole()).isEqualTo(UserRole.OPERATOR);
             assertThat(user.getCoordinates()).isEqualTo(operatorDto.coordinates());
@@ -200,6 +202,7 @@ public class OperatorsServiceTests {
         verify(userRepository).save(any(UserEntity.class));
         verify(operatorServicesService).editOperatorServices(any(UserEntity.class), eq(operatorDto.services()));
         verify(operatorMapper).toOperatorProfileDto(any(UserEntity.class), eq(operatorDto.services()));
+        verify(matchingJobService).enqueue(MatchingJobType.OPERATOR_UPDATED, userId);
     }
 
     @Test
@@ -1104,6 +1107,51 @@ public class OperatorsServiceTests {
         verify(ordersRepository).findAll(ArgumentMatchers.<Specification<OrdersEntity>>any(), eq(pageable));
     }
 
+    @Test
+    public void givenStoredDistanceAndDistanceSort_whenGetMatchedOrders_thenUsesStoredDistance() {
+        UUID operatorId = UUID.randomUUID();
+
+        UserEntity operator = UserEntity.builder()
+                .id(operatorId)
+                .role(UserRole.OPERATOR)
+                .coordinates("52.2297,21.0122")
+                .radius(50)
+                .build();
+
+        NewMatchedOrderEntity matchedOrder = NewMatchedOrderEntity.builder()
+                .id(1)
+                .operator(operator)
+                .operatorStatus(MatchedOrderStatus.PENDING)
+                .clientStatus(MatchedOrderStatus.PENDING)
+                .distanceKm(12.3456)
+                .build();
+
+        OrdersEntity order = OrdersEntity.builder()
+                .id(UUID.randomUUID())
+                .coordinates("52.2300,21.0130")
+                .status(OrderStatus.OPEN)
+                .matchedOrders(List.of(matchedOrder))
+                .build();
+
+        MatchedOrdersFilters filters = new MatchedOrdersFilters(
+                null, null, null, null, null, null, null, null
+        );
+
+        Pageable pageable = PageRequest.of(0, 20, org.springframework.data.domain.Sort.by("distance"));
+        Pageable unsorted = PageRequest.of(0, 20);
+        MatchedOrderDto dto = MatchedOrderDto.builder().distance(12.35).build();
+
+        when(userRepository.findByIdWithPortfolio(operatorId)).thenReturn(Optional.of(operator));
+        when(ordersRepository.findAll(ArgumentMatchers.<Specification<OrdersEntity>>any(), eq(unsorted)))
+                .thenReturn(new PageImpl<>(List.of(order), unsorted, 1));
+        when(ordersMapper.toMatchedOrderDto(order, matchedOrder, 12.35)).thenReturn(dto);
+
+        Page<MatchedOrderDto> result = service.getMatchedOrders(operatorId, filters, pageable);
+
+        assertThat(result.getContent()).containsExactly(dto);
+        verify(ordersMapper).toMatchedOrderDto(order, matchedOrder, 12.35);
+    }
+
     @Test
     public void givenUserNotFound_whenGetMatchedOrders_thenThrowsUserNotFoundException() {
         UUID operatorId = UUID.randomUUID();
@@ -1153,121 +1201,4 @@ public class OperatorsServiceTests {
         verify(userRepository).findByIdWithPortfolio(operatorId);
         verify(ordersRepository).findAll(ArgumentMatchers.<Specification<OrdersEntity>>any(), eq(pageable));
     }
-
-    @Test
-    public void givenValidCoordinates_whenCalculateDistance_thenReturnsCorrectDistance() throws Exception {
-        String location1 = "52.2297,21.0122";
-        String location2 = "50.0614,19.9383";
-
-        Method method = OperatorsService.class.getDeclaredMethod(
-                "calculateDistance", String.class, String.class);
-        method.setAccessible(true);
-
-        Double distance = (Double) method.invoke(service, location1, location2);
-
-        assertThat(distance).isNotNull();
-        assertThat(distance).isGreaterThan(250.0);
-        assertThat(distance).isLessThan(260.0);
-    }
-
-    @Test
-    public void givenSameCoordinates_whenCalculateDistance_thenReturnsZero() throws Exception {
-        String location1 = "52.2297,21.0122";
-        String location2 = "52.2297,21.0122";
-
-        Method method = OperatorsService.class.getDeclaredMethod(
-                "calculateDistance", String.class, String.class);
-        method.setAccessible(true);
-
-        Double distance = (Double) method.invoke(service, location1, location2);
-
-        assertThat(distance).isNotNull();
-        assertThat(distance.isNaN() || distance < 0.1).isTrue();
-    }
-
-    @Test
-    public void givenNullLocation1_whenCalculateDistance_thenReturnsNull() throws Exception {
-        String location2 = "52.2297,21.0122";
-
-        Method method = OperatorsService.class.getDeclaredMethod(
-                "calculateDistance", String.class, String.class);
-        method.setAccessible(true);
-
-        Double distance = (Double) method.invoke(service, null, location2);
-
-        assertThat(distance).isNull();
-    }
-
-    @Test
-    public void givenNullLocation2_whenCalculateDistance_thenReturnsNull() throws Exception {
-        String location1 = "52.2297,21.0122";
-
-        Method method = OperatorsService.class.getDeclaredMethod(
-                "calculateDistance", String.class, String.class);
-        method.setAccessible(true);
-
-        Double distance = (Double) method.invoke(service, location1, null);
-
-        assertThat(distance).isNull();
-    }
-
-    @Test
-    public void givenInvalidCoordinatesFormat_whenCalculateDistance_thenReturnsNull() throws Exception {
-        String location1 = "52.2297";
-        String location2 = "52.2297,21.0122";
-
-        Method method = OperatorsService.class.getDeclaredMethod(
-                "calculateDistance", String.class, String.class);
-        method.setAccessible(true);
-
-        Double distance = (Double) method.invoke(service, location1, location2);
-
-        assertThat(distance).isNull();
-    }
-
-    @Test
-    public void givenEmptyCoordinates_whenCalculateDistance_thenReturnsNull() throws Exception {
-        String location1 = "";
-        String location2 = "52.2297,21.0122";
-
-        Method method = OperatorsService.class.getDeclaredMethod(
-                "calculateDistance", String.class, String.class);
-        method.setAccessible(true);
-
-        Double distance = (Double) method.invoke(service, location1, location2);
-
-        assertThat(distance).isNull();
-    }
-
-    @Test
-    public void givenCoordinatesWithSpaces_whenCalculateDistance_thenCalculatesCorrectly() throws Exception {
-        String location1 = " 52.2297 , 21.0122 ";
-        String location2 = " 50.0614 , 19.9383 ";
-
-        Method method = OperatorsService.class.getDeclaredMethod(
-                "calculateDistance", String.class, String.class);
-        method.setAccessible(true);
-
-        Double distance = (Double) method.invoke(service, location1, location2);
-
-        assertThat(distance).isNotNull();
-        assertThat(distance).isGreaterThan(250.0);
-        assertThat(distance).isLessThan(260.0);
-    }
-
-    @Test
-    public void givenCloseCoordinates_whenCalculateDistance_thenReturnsSmallDistance() throws Exception {
-        String location1 = "52.2297,21.0122";
-        String location2 = "52.2300,21.0130";
-
-        Method method = OperatorsService.class.getDeclaredMethod(
-                "calculateDistance", String.class, String.class);
-        method.setAccessible(true);
-
-        Double distance = (Double) method.invoke(service, location1, location2);
-
-        assertThat(distance).isNotNull();
-        assertThat(distance).isLessThan(1.0);
-    }
 }
-
@@ -0,0 +1,197 @@
+package com.example.drones.orders;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.Mockito.*;
+
+@Testcontainers
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+        "app.matching.jobs.workers=0",
+        "app.matching.jobs.max-attempts=2",
+        "app.matching.jobs.retry-backoff=PT1M"
+})
+public class MatchingJobServiceIntegrationTests {
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:17");
+
+    @MockitoBean
+    private MatchingService matchingService;
+
+    @Autowired
+    private MatchingJobService matchingJobService;
+
+    @Autowired
+    private MatchingJobRepository matchingJobRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private Clock clock;
+
+    @AfterEach
+    void tearDown() {
+        matchingJobRepository.deleteAll();
+    }
+
+    private MatchingJobEntity enqueue(MatchingJobType type, UUID targetId) {
+        transactionTemplate.executeWithoutResult(status -> matchingJobService.enqueue(type, targetId));
+        return matchingJobRepository.findAll().stream()
+                .filter(job -> job.getTargetId().equals(targetId))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    @Test
+    void givenJobLockedByAnotherWorker_whenClaimNext_thenSkipsIt() throws Exception {
+        MatchingJobEntity first = enqueue(MatchingJobType.OPERATOR_UPDATED, UUID.randomUUID());
+        MatchingJobEntity second = enqueue(MatchingJobType.OPERATOR_UPDATED, UUID.randomUUID());
+        LocalDateTime now = LocalDateTime.now(clock).plusSeconds(1);
+        CountDownLatch claimed = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<Optional<Long>> otherWorker = CompletableFuture.supplyAsync(() -> transactionTemplate.execute(status -> {
+            Optional<Long> id = matchingJobRepository.claimNext(now).map(MatchingJobEntity::getId);
+            claimed.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return id;
+        }));
+        assertThat(claimed.await(5, TimeUnit.SECONDS)).isTrue();
+
+        Optional<Long> claimedHere = transactionTemplate.execute(status -> matchingJobRepository.claimNext(now).map(MatchingJobEntity::getId));
+        release.countDown();
+
+        assertThat(otherWorker.get(5, TimeUnit.SECONDS)).contains(first.getId());
+        assertThat(claimedHere).contains(second.getId());
+    }
+
+    @Test
+    void givenSucceedingJob_whenProcessNext_thenJobIsDeleted() {
+        UUID operatorId = UUID.randomUUID();
+        enqueue(MatchingJobType.OPERATOR_UPDATED, operatorId);
+
+        assertThat(matchingJobService.processNext()).isTrue();
+
+        verify(matchingService).rematchOperator(operatorId);
+        assertThat(matchingJobRepository.count()).isZero();
+        assertThat(matchingJobService.processNext()).isFalse();
+    }
+
+    @Test
+    void givenSeveralCreatedOrders_whenProcessNext_thenTheyAreMatchedInOneBatch() {
+        List<UUID> orderIds = List.of(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID());
+        when(matchingService.matchOperatorsToOrders(anyList())).thenReturn(Set.of());
+        orderIds.forEach(orderId -> enqueue(MatchingJobType.ORDER_CREATED, orderId));
+
+        assertThat(matchingJobService.processNext()).isTrue();
+
+        verify(matchingService).matchOperatorsToOrders(argThat(batch -> batch.size() == 3 && batch.containsAll(orderIds)));
+        assertThat(matchingJobRepository.count()).isZero();
+        assertThat(matchingJobService.processNext()).isFalse();
+    }
+
+    @Test
+    void givenFailingJob_whenProcessNext_thenItIsRescheduledWithBackoff() {
+        UUID operatorId = UUID.randomUUID();
+        doThrow(new IllegalStateException("boom")).when(matchingService).rematchOperator(operatorId);
+        MatchingJobEntity job = enqueue(MatchingJobType.OPERATOR_UPDATED, operatorId);
+
+        assertThat(matchingJobService.processNext()).isTrue();
+
+        MatchingJobEntity retried = matchingJobRepository.findById(job.getId()).orElseThrow();
+        assertThat(retried.getStatus()).isEqualTo(MatchingJobStatus.PENDING);
+        assertThat(retried.getAttempts()).isEqualTo(1);
+        assertThat(retried.getLastError()).isEqualTo("boom");
+        assertThat(retried.getAvailableAt()).isCloseTo(LocalDateTime.now(clock).plus(Duration.ofMinutes(1)), within(10, ChronoUnit.SECONDS));
+        assertThat(matchingJobService.processNext()).isFalse();
+    }
+
+    @Test
+    void givenJobFailingOnEveryAttempt_whenAttemptsAreExhausted_thenItIsMarkedFailed() {
+        UUID operatorId = UUID.randomUUID();
+        doThrow(new IllegalStateException("boom")).when(matchingService).rematchOperator(operatorId);
+        MatchingJobEntity job = enqueue(MatchingJobType.OPERATOR_UPDATED, operatorId);
+
+        assertThat(matchingJobService.processNext()).isTrue();
+        MatchingJobEntity retried = matchingJobRepository.findById(job.getId()).orElseThrow();
+        retried.setAvailableAt(LocalDateTime.now(clock).minusSeconds(1));
+        matchingJobRepository.save(retried);
+        assertThat(matchingJobService.processNext()).isTrue();
+
+        MatchingJobEntity failed = matchingJobRepository.findById(job.getId()).orElseThrow();
+        assertThat(failed.getStatus()).isEqualTo(MatchingJobStatus.FAILED);
+        assertThat(failed.getAttempts()).isEqualTo(2);
+        assertThat(matchingJobService.processNext()).isFalse();
+        verify(matchingService, times(2)).rematchOperator(operatorId);
+    }
+
+    private List<MatchingJobEntity> nextWaves(UUID orderId) {
+        return matchingJobRepository.findAll().stream()
+                .filter(job -> job.getType() == MatchingJobType.ORDER_NEXT_WAVE && job.getTargetId().equals(orderId))
+                .toList();
+    }
+
+    @Test
+    void givenWaveWithCandidatesLeft_whenProcessNext_thenTheNextWaveIsScheduled() {
+        UUID orderId = UUID.randomUUID();
+        when(matchingService.releaseNextWave(List.of(orderId))).thenReturn(Set.of(orderId));
+        MatchingJobEntity wave = enqueue(MatchingJobType.ORDER_NEXT_WAVE, orderId);
+
+        assertThat(matchingJobService.processNext()).isTrue();
+
+        assertThat(nextWaves(orderId)).singleElement().satisfies(next -> {
+            assertThat(next.getId()).isNotEqualTo(wave.getId());
+            assertThat(next.getAvailableAt()).isAfter(LocalDateTime.now(clock).plusMinutes(1));
+        });
+    }
+
+    @Test
+    void givenNextWavePending_whenRematchLeavesCandidates_thenNoSecondWaveIsScheduled() {
+        UUID orderId = UUID.randomUUID();
+        when(matchingService.rematchOrders(List.of(orderId))).thenReturn(Set.of(orderId));
+        MatchingJobEntity pending = matchingJobRepository.save(MatchingJobEntity.builder()
+                .type(MatchingJobType.ORDER_NEXT_WAVE)
+                .targetId(orderId)
+                .availableAt(LocalDateTime.now(clock).plusHours(1))
+                .createdAt(LocalDateTime.now(clock))
+                .build());
+        enqueue(MatchingJobType.ORDER_UPDATED, orderId);
+
+        assertThat(matchingJobService.processNext()).isTrue();
+
+        assertThat(nextWaves(orderId)).extracting(MatchingJobEntity::getId).containsExactly(pending.getId());
+    }
+}
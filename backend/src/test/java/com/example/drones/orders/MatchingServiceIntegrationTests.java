@@ -0,0 +1,238 @@
+package com.example.drones.orders;
+
+import com.example.drones.services.OperatorServicesEntity;
+import com.example.drones.services.OperatorServicesRepository;
+import com.example.drones.services.ServicesEntity;
+import com.example.drones.services.ServicesRepository;
+import com.example.drones.user.UserEntity;
+import com.example.drones.user.UserRepository;
+import com.example.drones.user.UserRole;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Testcontainers
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+        "app.matching.jobs.workers=0",
+        "app.matching.fan-out.size=2",
+        "app.matching.operator-chunk-size=2"
+})
+public class MatchingServiceIntegrationTests {
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:17");
+
+    private static final String SERVICE_NAME = "Laser Scanning";
+
+    @Autowired
+    private MatchingService matchingService;
+
+    @Autowired
+    private NewMatchedOrdersRepository newMatchedOrdersRepository;
+
+    @Autowired
+    private OrdersRepository ordersRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ServicesRepository servicesRepository;
+
+    @Autowired
+    private OperatorServicesRepository operatorServicesRepository;
+
+    private ServicesEntity service;
+    private UserEntity client;
+
+    @BeforeEach
+    void setUp() {
+        service = servicesRepository.findById(SERVICE_NAME).orElseGet(() -> {
+            ServicesEntity created = new ServicesEntity();
+            created.setName(SERVICE_NAME);
+            return servicesRepository.save(created);
+        });
+        client = userRepository.save(UserEntity.builder()
+                .displayName("matching_client")
+                .email("matching_client@test.pl")
+                .password("pass")
+                .role(UserRole.CLIENT)
+                .name("Jan").surname("Kowalski")
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        newMatchedOrdersRepository.deleteAll();
+        ordersRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    private UserEntity createOperator(String username, String coords, int radius) {
+        UserEntity operator = userRepository.save(UserEntity.builder()
+                .displayName(username)
+                .email(username + "@op.pl")
+                .password("pass")
+                .role(UserRole.OPERATOR)
+                .name("Op").surname("Erator")
+                .coordinates(coords)
+                .radius(radius)
+                .build());
+        OperatorServicesEntity link = new OperatorServicesEntity();
+        link.setOperator(operator);
+        link.setServiceName(SERVICE_NAME);
+        operatorServicesRepository.save(link);
+        return operator;
+    }
+
+    private OrdersEntity createOrder(String title, String coords) {
+        return ordersRepository.save(OrdersEntity.builder()
+                .title(title)
+                .description("Opis")
+                .service(service)
+                .coordinates(coords)
+                .fromDate(LocalDateTime.now().plusDays(1))
+                .toDate(LocalDateTime.now().plusDays(2))
+                .status(OrderStatus.OPEN)
+                .user(client)
+                .createdAt(LocalDateTime.now())
+                .build());
+    }
+
+    private void changeRadius(UserEntity operator, int radius) {
+        UserEntity stored = userRepository.findById(operator.getId()).orElseThrow();
+        stored.setRadius(radius);
+        userRepository.save(stored);
+    }
+
+    private NewMatchedOrderEntity match(OrdersEntity order, UserEntity operator) {
+        return newMatchedOrdersRepository.findByOrderIdAndOperatorId(order.getId(), operator.getId()).orElseThrow();
+    }
+
+    private void assertStatuses(NewMatchedOrderEntity match, MatchedOrderStatus operatorStatus, MatchedOrderStatus clientStatus) {
+        assertThat(match.getOperatorStatus()).isEqualTo(operatorStatus);
+        assertThat(match.getClientStatus()).isEqualTo(clientStatus);
+    }
+
+    @Test
+    void givenOperatorCoverage_whenItShrinksAndGrows_thenMatchesAreRetiredAndRevived() {
+        UserEntity operator = createOperator("op_coverage", "52.2200, 21.0100", 20);
+        OrdersEntity near = createOrder("Near", "52.23, 21.01");
+        OrdersEntity edge = createOrder("Edge", "52.33, 21.01");
+        OrdersEntity declined = createOrder("Declined", "52.33, 21.02");
+        OrdersEntity refused = createOrder("Refused", "52.33, 21.03");
+        OrdersEntity far = createOrder("Far", "51.76, 19.46");
+
+        matchingService.matchOrdersToNewOperator(operator.getId());
+        NewMatchedOrderEntity declinedMatch = match(declined, operator);
+        declinedMatch.setOperatorStatus(MatchedOrderStatus.REJECTED);
+        newMatchedOrdersRepository.save(declinedMatch);
+        NewMatchedOrderEntity refusedMatch = match(refused, operator);
+        refusedMatch.setOperatorStatus(MatchedOrderStatus.REJECTED);
+        refusedMatch.setClientStatus(MatchedOrderStatus.REJECTED);
+        newMatchedOrdersRepository.save(refusedMatch);
+        assertThat(newMatchedOrdersRepository.findByOrderIdAndOperatorId(far.getId(), operator.getId())).isEmpty();
+
+        changeRadius(operator, 5);
+        matchingService.rematchOperator(operator.getId());
+
+        assertStatuses(match(near, operator), MatchedOrderStatus.PENDING, MatchedOrderStatus.PENDING);
+        assertStatuses(match(edge, operator), MatchedOrderStatus.EXPIRED, MatchedOrderStatus.EXPIRED);
+        assertStatuses(match(declined, operator), MatchedOrderStatus.REJECTED, MatchedOrderStatus.PENDING);
+        assertStatuses(match(refused, operator), MatchedOrderStatus.REJECTED, MatchedOrderStatus.REJECTED);
+        assertThat(newMatchedOrdersRepository.findByOrderIdAndOperatorId(far.getId(), operator.getId())).isEmpty();
+
+        changeRadius(operator, 150);
+        matchingService.rematchOperator(operator.getId());
+
+        assertStatuses(match(near, operator), MatchedOrderStatus.PENDING, MatchedOrderStatus.PENDING);
+        assertStatuses(match(edge, operator), MatchedOrderStatus.PENDING, MatchedOrderStatus.PENDING);
+        assertStatuses(match(declined, operator), MatchedOrderStatus.REJECTED, MatchedOrderStatus.PENDING);
+        assertStatuses(match(refused, operator), MatchedOrderStatus.REJECTED, MatchedOrderStatus.REJECTED);
+        NewMatchedOrderEntity farMatch = match(far, operator);
+        assertStatuses(farMatch, MatchedOrderStatus.PENDING, MatchedOrderStatus.PENDING);
+        assertThat(farMatch.getDistanceKm()).isBetween(100.0, 150.0);
+        assertThat(newMatchedOrdersRepository.count()).isEqualTo(5);
+    }
+
+    @Test
+    void givenFullFirstWave_whenNextWaveReleased_thenRemainingOperatorsAreMatched() {
+        UserEntity closest = createOperator("op_closest", "52.2310, 21.0100", 20);
+        UserEntity middle = createOperator("op_middle", "52.2700, 21.0100", 20);
+        UserEntity farthest = createOperator("op_farthest", "52.3500, 21.0100", 20);
+        OrdersEntity order = createOrder("Waves", "52.23, 21.01");
+
+        Set<UUID> ordersWithCandidatesLeft = matchingService.matchOperatorsToOrders(List.of(order.getId()));
+
+        assertThat(ordersWithCandidatesLeft).containsExactly(order.getId());
+        assertThat(newMatchedOrdersRepository.findByOrderIdAndOperatorId(order.getId(), closest.getId())).isPresent();
+        assertThat(newMatchedOrdersRepository.findByOrderIdAndOperatorId(order.getId(), middle.getId())).isPresent();
+        assertThat(newMatchedOrdersRepository.findByOrderIdAndOperatorId(order.getId(), farthest.getId())).isEmpty();
+
+        Set<UUID> stillLeft = matchingService.releaseNextWave(List.of(order.getId()));
+
+        assertThat(stillLeft).isEmpty();
+        assertStatuses(match(order, farthest), MatchedOrderStatus.PENDING, MatchedOrderStatus.PENDING);
+        assertThat(newMatchedOrdersRepository.count()).isEqualTo(3);
+    }
+
+    @Test
+    void givenTopUpFillingFewerPlacesThanTheWave_whenOrderRematched_thenRemainingCandidatesAreReported() {
+        UserEntity first = createOperator("op_first", "52.2310, 21.0100", 20);
+        createOperator("op_second", "52.2500, 21.0100", 20);
+        UserEntity third = createOperator("op_third", "52.2700, 21.0100", 20);
+        createOperator("op_fourth", "52.3500, 21.0100", 20);
+        OrdersEntity order = createOrder("Top-up", "52.23, 21.01");
+        matchingService.matchOperatorsToOrders(List.of(order.getId()));
+        NewMatchedOrderEntity declinedMatch = match(order, first);
+        declinedMatch.setOperatorStatus(MatchedOrderStatus.REJECTED);
+        newMatchedOrdersRepository.save(declinedMatch);
+
+        Set<UUID> ordersWithCandidatesLeft = matchingService.rematchOrders(List.of(order.getId()));
+
+        assertStatuses(match(order, third), MatchedOrderStatus.PENDING, MatchedOrderStatus.PENDING);
+        assertThat(newMatchedOrdersRepository.count()).isEqualTo(3);
+        assertThat(ordersWithCandidatesLeft).containsExactly(order.getId());
+    }
+
+    @Test
+    void givenMoreOrdersThanOneChunk_whenNewOperatorMatched_thenEveryCoveredOrderIsMatched() {
+        List<OrdersEntity> covered = List.of(
+                createOrder("First", "52.23, 21.01"),
+                createOrder("Second", "52.24, 21.02"),
+                createOrder("Third", "52.25, 21.03"),
+                createOrder("Fourth", "52.26, 21.04"),
+                createOrder("Fifth", "52.27, 21.05")
+        );
+        OrdersEntity outside = createOrder("Outside", "51.76, 19.46");
+        UserEntity operator = createOperator("op_chunks", "52.2200, 21.0100", 20);
+
+        matchingService.matchOrdersToNewOperator(operator.getId());
+
+        for (OrdersEntity order : covered) {
+            NewMatchedOrderEntity match = match(order, operator);
+            assertStatuses(match, MatchedOrderStatus.PENDING, MatchedOrderStatus.PENDING);
+            assertThat(match.getDistanceKm()).isLessThanOrEqualTo(20.0);
+        }
+        assertThat(newMatchedOrdersRepository.findByOrderIdAndOperatorId(outside.getId(), operator.getId())).isEmpty();
+        assertThat(newMatchedOrdersRepository.count()).isEqualTo(covered.size());
+    }
+}
@@ -0,0 +1,204 @@
+package com.example.drones.orders;
+
+import com.example.drones.reviews.ReviewEntity;
+import com.example.drones.reviews.ReviewsRepository;
+import com.example.drones.services.OperatorServicesEntity;
+import com.example.drones.services.OperatorServicesRepository;
+import com.example.drones.services.ServicesEntity;
+import com.example.drones.services.ServicesRepository;
+import com.example.drones.user.UserEntity;
+import com.example.drones.user.UserRepository;
+import com.example.drones.user.UserRole;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.test.context.ActiveProfiles;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Testcontainers
+@ActiveProfiles("test")
+class NewMatchedOrdersRepositoryTests {
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:17");
+
+    @Autowired
+    private NewMatchedOrdersRepository newMatchedOrdersRepository;
+
+    @Autowired
+    private OrdersRepository ordersRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ServicesRepository servicesRepository;
+
+    @Autowired
+    private OperatorServicesRepository operatorServicesRepository;
+
+    @Autowired
+    private ReviewsRepository reviewsRepository;
+
+    private final String SERVICE_NAME = "Filmowanie";
+    private ServicesEntity service;
+    private UserEntity clientUser;
+    private OrdersEntity order;
+
+    @BeforeEach
+    void setUp() {
+        service = new ServicesEntity();
+        service.setName(SERVICE_NAME);
+        servicesRepository.save(service);
+
+        clientUser = userRepository.save(UserEntity.builder()
+                .displayName("client")
+                .email("client@test.com")
+                .role(UserRole.CLIENT)
+                .name("Client").surname("User").password("pass")
+                .build());
+
+        order = createOrder("52.2300, 21.0100");
+    }
+
+    private OrdersEntity createOrder(String coords) {
+        return ordersRepository.saveAndFlush(OrdersEntity.builder()
+                .title("Order")
+                .description("Opis")
+                .service(service)
+                .coordinates(coords)
+                .fromDate(LocalDateTime.now().plusDays(1))
+                .toDate(LocalDateTime.now().plusDays(2))
+                .status(OrderStatus.OPEN)
+                .user(clientUser)
+                .createdAt(LocalDateTime.now())
+                .build());
+    }
+
+    private UserEntity createOperator(String username, String coords, int radius) {
+        UserEntity user = userRepository.save(UserEntity.builder()
+                .displayName(username)
+                .email(username + "@test.com")
+                .role(UserRole.OPERATOR)
+                .name("Test").surname("Op").password("pass")
+                .coordinates(coords)
+                .radius(radius)
+                .build());
+
+        OperatorServicesEntity link = new OperatorServicesEntity();
+        link.setOperator(user);
+        link.setService(service);
+        link.setServiceName(SERVICE_NAME);
+        operatorServicesRepository.saveAndFlush(link);
+        return user;
+    }
+
+    private List<UUID> insertRanked(List<UserEntity> operators, int fanOut, double ratingWeight, boolean topUp) {
+        List<UUID> orderIds = new ArrayList<>();
+        operators.forEach(operator -> orderIds.add(order.getId()));
+        return newMatchedOrdersRepository.insertRankedMatchPairs(
+                        operators.stream().map(UserEntity::getId).toArray(UUID[]::new),
+                        orderIds.toArray(UUID[]::new),
+                        fanOut,
+                        ratingWeight,
+                        topUp
+                ).stream()
+                .map(MatchedPair::getOperatorId)
+                .toList();
+    }
+
+    @Test
+    void givenMoreCandidatesThanFanOut_whenInsertRanked_thenOnlyTheClosestAreInsertedPerWave() {
+        UserEntity closest = createOperator("op_closest", "52.2310, 21.0100", 20);
+        UserEntity middle = createOperator("op_middle", "52.2700, 21.0100", 20);
+        UserEntity farthest = createOperator("op_farthest", "52.3500, 21.0100", 20);
+        List<UserEntity> candidates = List.of(farthest, closest, middle);
+
+        assertThat(insertRanked(candidates, 2, 0.0, false))
+                .containsExactlyInAnyOrder(closest.getId(), middle.getId());
+        assertThat(insertRanked(candidates, 2, 0.0, false))
+                .containsExactly(farthest.getId());
+        assertThat(newMatchedOrdersRepository.count()).isEqualTo(3);
+    }
+
+    @Test
+    void givenLiveMatches_whenInsertRankedWithTopUp_thenTheyCountTowardsTheCap() {
+        UserEntity closest = createOperator("op_closest", "52.2310, 21.0100", 20);
+        UserEntity middle = createOperator("op_middle", "52.2700, 21.0100", 20);
+        UserEntity farthest = createOperator("op_farthest", "52.3500, 21.0100", 20);
+
+        assertThat(insertRanked(List.of(closest), 2, 0.0, false)).containsExactly(closest.getId());
+
+        assertThat(insertRanked(List.of(middle, farthest), 2, 0.0, true)).containsExactly(middle.getId());
+        assertThat(insertRanked(List.of(farthest), 2, 0.0, true)).isEmpty();
+    }
+
+    @Test
+    void givenBetterRatedOperatorFartherAway_whenRatingWeighsIn_thenItIsRankedFirst() {
+        UserEntity near = createOperator("op_near", "52.2310, 21.0100", 20);
+        UserEntity rated = createOperator("op_rated", "52.2700, 21.0100", 20);
+        OrdersEntity pastOrder = createOrder("52.2300, 21.0100");
+        reviewsRepository.saveAndFlush(ReviewEntity.builder()
+                .order(pastOrder)
+                .author(clientUser)
+                .target(rated)
+                .stars(5)
+                .build());
+
+        assertThat(insertRanked(List.of(near, rated), 1, 0.0, false)).containsExactly(near.getId());
+        newMatchedOrdersRepository.deleteAllInBatch();
+        assertThat(insertRanked(List.of(near, rated), 1, 0.9, false)).containsExactly(rated.getId());
+    }
+
+    @Test
+    void givenCandidateOutsideOperatorRadius_whenInsertRanked_thenItIsSkipped() {
+        UserEntity inRange = createOperator("op_in_range", "52.2700, 21.0100", 20);
+        UserEntity outOfRange = createOperator("op_out_of_range", "52.2700, 21.0100", 1);
+
+        assertThat(insertRanked(List.of(inRange, outOfRange), 0, 0.0, false)).containsExactly(inRange.getId());
+    }
+
+    @Test
+    void givenExpiredAndRefusedMatches_whenInsertRanked_thenOnlyTheExpiredOneIsRevived() {
+        UserEntity expired = createOperator("op_expired", "52.2310, 21.0100", 20);
+        UserEntity refused = createOperator("op_refused", "52.2700, 21.0100", 20);
+        newMatchedOrdersRepository.saveAndFlush(NewMatchedOrderEntity.builder()
+                .operator(expired)
+                .order(order)
+                .operatorStatus(MatchedOrderStatus.EXPIRED)
+                .clientStatus(MatchedOrderStatus.EXPIRED)
+                .build());
+        newMatchedOrdersRepository.saveAndFlush(NewMatchedOrderEntity.builder()
+                .operator(refused)
+                .order(order)
+                .operatorStatus(MatchedOrderStatus.REJECTED)
+                .clientStatus(MatchedOrderStatus.REJECTED)
+                .build());
+
+        List<MatchedPair> revived = newMatchedOrdersRepository.insertRankedMatchPairs(
+                new UUID[]{expired.getId(), refused.getId()},
+                new UUID[]{order.getId(), order.getId()},
+                0,
+                0.0,
+                false
+        );
+
+        assertThat(revived).singleElement().satisfies(pair -> {
+            assertThat(pair.getOperatorId()).isEqualTo(expired.getId());
+            assertThat(pair.getRevivals()).isEqualTo(1);
+        });
+    }
+}
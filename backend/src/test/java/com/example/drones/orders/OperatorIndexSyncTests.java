@@ -0,0 +1,119 @@
+package com.example.drones.orders;
+
+import com.example.drones.common.GeoGrid;
+import com.example.drones.common.GeoPoint;
+import com.example.drones.common.pubsub.DatabaseChannels;
+import com.example.drones.services.OperatorServicesEntity;
+import com.example.drones.services.OperatorServicesRepository;
+import com.example.drones.user.UserEntity;
+import com.example.drones.user.UserRepository;
+import com.example.drones.user.UserRole;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class OperatorIndexSyncTests {
+
+    private static final String SERVICE_NAME = "Laser Scanning";
+    private static final GeoPoint WARSAW = new GeoPoint(52.2297, 21.0122);
+
+    @Mock
+    private DatabaseChannels databaseChannels;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private OperatorServicesRepository operatorServicesRepository;
+
+    private OperatorSpatialIndex index;
+    private OperatorIndexSync sync;
+    private UserEntity operator;
+
+    @BeforeEach
+    void setUp() {
+        index = new OperatorSpatialIndex(new GeoGrid(0.25));
+        sync = new OperatorIndexSync(index, databaseChannels, userRepository, operatorServicesRepository);
+        operator = UserEntity.builder()
+                .id(UUID.randomUUID())
+                .role(UserRole.OPERATOR)
+                .coordinates("50.0647, 19.9450")
+                .radius(10)
+                .build();
+        index.rebuild(List.of(operator), Map.of(operator.getId(), List.of(SERVICE_NAME)));
+    }
+
+    private OperatorServicesEntity service(String serviceName) {
+        OperatorServicesEntity service = new OperatorServicesEntity();
+        service.setOperator(operator);
+        service.setServiceName(serviceName);
+        return service;
+    }
+
+    @Test
+    void whenCreated_thenListensOnItsChannel() {
+        verify(databaseChannels).listen(OperatorIndexSync.CHANNEL, sync);
+    }
+
+    @Test
+    void givenOperatorId_whenAnnounce_thenSendsItOnTheChannel() {
+        sync.announce(operator.getId());
+
+        verify(databaseChannels).send(OperatorIndexSync.CHANNEL, operator.getId().toString());
+    }
+
+    @Test
+    void givenOperatorMovedOnAnotherNode_whenNotified_thenIndexReloadsIt() {
+        UserEntity moved = UserEntity.builder()
+                .id(operator.getId())
+                .role(UserRole.OPERATOR)
+                .coordinates("52.2200, 21.0100")
+                .radius(10)
+                .build();
+        when(userRepository.findById(operator.getId())).thenReturn(Optional.of(moved));
+        when(operatorServicesRepository.findAllByOperatorId(operator.getId())).thenReturn(List.of(service(SERVICE_NAME)));
+
+        sync.onNotification(operator.getId().toString());
+
+        assertThat(index.findCoveringOperators(SERVICE_NAME, WARSAW, null)).containsExactly(operator.getId());
+    }
+
+    @Test
+    void givenOperatorDeletedOnAnotherNode_whenNotified_thenIndexDropsIt() {
+        when(userRepository.findById(operator.getId())).thenReturn(Optional.empty());
+
+        sync.onNotification(operator.getId().toString());
+
+        assertThat(index.findCoveringOperators(SERVICE_NAME, new GeoPoint(50.0647, 19.9450), null)).isEmpty();
+        verifyNoInteractions(operatorServicesRepository);
+    }
+
+    @Test
+    void givenMalformedPayload_whenNotified_thenIndexIsUnchanged() {
+        sync.onNotification("not-a-uuid");
+
+        assertThat(index.findCoveringOperators(SERVICE_NAME, new GeoPoint(50.0647, 19.9450), null)).containsExactly(operator.getId());
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void whenListening_thenIndexIsRebuiltFromTheDatabase() {
+        when(userRepository.findAllLocatedOperators()).thenReturn(List.of());
+        when(operatorServicesRepository.findAllOfLocatedOperators()).thenReturn(List.of());
+
+        sync.onListening();
+
+        assertThat(index.findCoveringOperators(SERVICE_NAME, new GeoPoint(50.0647, 19.9450), null)).isEmpty();
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.drones.orders;
+
+import com.example.drones.common.GeoGrid;
+import com.example.drones.common.GeoPoint;
+import com.example.drones.user.UserEntity;
+import com.example.drones.user.UserRole;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+public class OperatorSpatialIndexListenerTests {
+
+    private static final String SERVICE_NAME = "Laser Scanning";
+    private static final GeoPoint WARSAW = new GeoPoint(52.2297, 21.0122);
+
+    private OperatorSpatialIndex index;
+    private OperatorSpatialIndexListener listener;
+    private UserEntity operator;
+
+    @BeforeEach
+    void setUp() {
+        index = new OperatorSpatialIndex(new GeoGrid(0.25));
+        StaticListableBeanFactory beanFactory = new StaticListableBeanFactory(Map.of("operatorSpatialIndex", index));
+        listener = new OperatorSpatialIndexListener(
+                beanFactory.getBeanProvider(OperatorSpatialIndex.class), beanFactory.getBeanProvider(OperatorIndexSync.class));
+        operator = UserEntity.builder()
+                .id(UUID.randomUUID())
+                .role(UserRole.OPERATOR)
+                .coordinates("50.0647, 19.9450")
+                .radius(10)
+                .build();
+        index.rebuild(List.of(operator), Map.of(operator.getId(), List.of(SERVICE_NAME)));
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    @Test
+    void givenOperatorMovedInTransaction_whenCommitted_thenIndexChangesOnlyAfterCommit() {
+        operator.setCoordinates("52.2200, 21.0100");
+
+        listener.onSaved(operator);
+
+        assertThat(index.findCoveringOperators(SERVICE_NAME, WARSAW, null)).isEmpty();
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertThat(index.findCoveringOperators(SERVICE_NAME, WARSAW, null)).containsExactly(operator.getId());
+    }
+
+    @Test
+    void givenOperatorMovedInTransaction_whenRolledBack_thenIndexIsUnchanged() {
+        operator.setCoordinates("52.2200, 21.0100");
+
+        listener.onSaved(operator);
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        assertThat(index.findCoveringOperators(SERVICE_NAME, WARSAW, null)).isEmpty();
+    }
+
+    @Test
+    void givenOperatorMovedInTransaction_whenSaved_thenChangeIsAnnouncedInThatTransaction() {
+        OperatorIndexSync sync = mock(OperatorIndexSync.class);
+        StaticListableBeanFactory beanFactory = new StaticListableBeanFactory(Map.of("operatorSpatialIndex", index, "operatorIndexSync", sync));
+        listener = new OperatorSpatialIndexListener(
+                beanFactory.getBeanProvider(OperatorSpatialIndex.class), beanFactory.getBeanProvider(OperatorIndexSync.class));
+
+        listener.onSaved(operator);
+
+        verify(sync).announce(operator.getId());
+    }
+
+    @Test
+    void givenClientSaved_whenNeverAnOperator_thenNothingIsAnnounced() {
+        OperatorIndexSync sync = mock(OperatorIndexSync.class);
+        StaticListableBeanFactory beanFactory = new StaticListableBeanFactory(Map.of("operatorSpatialIndex", index, "operatorIndexSync", sync));
+        listener = new OperatorSpatialIndexListener(
+                beanFactory.getBeanProvider(OperatorSpatialIndex.class), beanFactory.getBeanProvider(OperatorIndexSync.class));
+        UserEntity client = UserEntity.builder()
+                .id(UUID.randomUUID())
+                .role(UserRole.CLIENT)
+                .coordinates("52.2200, 21.0100")
+                .build();
+
+        listener.onSaved(client);
+
+        verifyNoInteractions(sync);
+        assertThat(TransactionSynchronizationManager.getSynchronizations()).isEmpty();
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.drones.orders;
+
+import com.example.drones.common.GeoGrid;
+import com.example.drones.common.GeoPoint;
+import com.example.drones.user.UserEntity;
+import com.example.drones.user.UserRole;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class OperatorSpatialIndexTests {
+
+    private static final String SERVICE_NAME = "Laser Scanning";
+    private static final GeoPoint WARSAW = new GeoPoint(52.2297, 21.0122);
+
+    private OperatorSpatialIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new OperatorSpatialIndex(new GeoGrid(0.25));
+    }
+
+    private UserEntity operator(String coordinates, int radius) {
+        return UserEntity.builder()
+                .id(UUID.randomUUID())
+                .role(UserRole.OPERATOR)
+                .coordinates(coordinates)
+                .radius(radius)
+                .build();
+    }
+
+    @Test
+    void givenNewIndex_whenNotRebuilt_thenIsNotReady() {
+        assertThat(index.isReady()).isFalse();
+
+        index.rebuild(List.of(), Map.of());
+
+        assertThat(index.isReady()).isTrue();
+    }
+
+    @Test
+    void givenOperatorsInAndOutOfRange_whenFindCoveringOperators_thenOnlyCoveringOperatorsReturned() {
+        UserEntity near = operator("52.2200, 21.0100", 10);
+        UserEntity far = operator("50.0647, 19.9450", 50);
+        index.rebuild(List.of(near, far), Map.of(
+                near.getId(), List.of(SERVICE_NAME),
+                far.getId(), List.of(SERVICE_NAME)
+        ));
+
+        List<UUID> result = index.findCoveringOperators(SERVICE_NAME, WARSAW, null);
+
+        assertThat(result).containsExactly(near.getId());
+    }
+
+    @Test
+    void givenOperatorWithLargeRadius_whenOrderIsInAnotherCell_thenOperatorIsFound() {
+        UserEntity operator = operator("50.0647, 19.9450", 300);
+        index.rebuild(List.of(operator), Map.of(operator.getId(), List.of(SERVICE_NAME)));
+
+        List<UUID> result = index.findCoveringOperators(SERVICE_NAME, WARSAW, null);
+
+        assertThat(result).containsExactly(operator.getId());
+    }
+
+    @Test
+    void givenOperatorOfferingOtherService_whenFindCoveringOperators_thenOperatorIsNotReturned() {
+        UserEntity operator = operator("52.2297, 21.0122", 10);
+        index.rebuild(List.of(operator), Map.of(operator.getId(), List.of("Photography")));
+
+        assertThat(index.findCoveringOperators(SERVICE_NAME, WARSAW, null)).isEmpty();
+    }
+
+    @Test
+    void givenExcludedOperator_whenFindCoveringOperators_thenOperatorIsSkipped() {
+        UserEntity operator = operator("52.2297, 21.0122", 10);
+        index.rebuild(List.of(operator), Map.of(operator.getId(), List.of(SERVICE_NAME)));
+
+        assertThat(index.findCoveringOperators(SERVICE_NAME, WARSAW, operator.getId())).isEmpty();
+    }
+
+    @Test
+    void givenServicesAddedBeforeLocation_whenOperatorUpdated_thenOperatorIsFound() {
+        UserEntity operator = operator("52.2297, 21.0122", 10);
+        index.addService(operator.getId(), SERVICE_NAME);
+
+        index.updateOperator(operator);
+
+        assertThat(index.findCoveringOperators(SERVICE_NAME, WARSAW, null)).containsExactly(operator.getId());
+    }
+
+    @Test
+    void givenIndexedOperator_whenMovedAway_thenOldCellsNoLongerReturnIt() {
+        UserEntity operator = operator("52.2297, 21.0122", 10);
+        index.rebuild(List.of(operator), Map.of(operator.getId(), List.of(SERVICE_NAME)));
+
+        operator.setCoordinates("54.3520, 18.6466");
+        index.updateOperator(operator);
+
+        assertThat(index.findCoveringOperators(SERVICE_NAME, WARSAW, null)).isEmpty();
+        assertThat(index.findCoveringOperators(SERVICE_NAME, new GeoPoint(54.3520, 18.6466), null))
+                .containsExactly(operator.getId());
+    }
+
+    @Test
+    void givenIndexedOperator_whenBlocked_thenOperatorIsNoLongerFound() {
+        UserEntity operator = operator("52.2297, 21.0122", 10);
+        index.rebuild(List.of(operator), Map.of(operator.getId(), List.of(SERVICE_NAME)));
+
+        operator.setRole(UserRole.BLOCKED);
+        index.updateOperator(operator);
+
+        assertThat(index.findCoveringOperators(SERVICE_NAME, WARSAW, null)).isEmpty();
+    }
+
+    @Test
+    void givenIndexedOperator_whenServiceRemoved_thenOperatorIsNoLongerFoundForService() {
+        UserEntity operator = operator("52.2297, 21.0122", 10);
+        index.rebuild(List.of(operator), Map.of(operator.getId(), List.of(SERVICE_NAME, "Photography")));
+
+        index.removeService(operator.getId(), SERVICE_NAME);
+
+        assertThat(index.findCoveringOperators(SERVICE_NAME, WARSAW, null)).isEmpty();
+        assertThat(index.findCoveringOperators("Photography", WARSAW, null)).containsExactly(operator.getId());
+    }
+
+    @Test
+    void givenIndexedOperator_whenRemoved_thenOperatorIsNoLongerFound() {
+        UserEntity operator = operator("52.2297, 21.0122", 10);
+        index.rebuild(List.of(operator), Map.of(operator.getId(), List.of(SERVICE_NAME)));
+
+        index.removeOperator(operator.getId());
+
+        assertThat(index.findCoveringOperators(SERVICE_NAME, WARSAW, null)).isEmpty();
+    }
+}
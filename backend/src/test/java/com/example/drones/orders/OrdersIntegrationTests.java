@@ -25,14 +25,21 @@ import org.springframework.boot.test.web.client.TestRestTemplate;
 import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.*;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.ActiveProfiles;
 import org.testcontainers.containers.PostgreSQLContainer;
 import org.testcontainers.junit.jupiter.Container;
 import org.testcontainers.junit.jupiter.Testcontainers;
 
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Stream;
 
 import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.assertj.core.api.Assertions.assertThat;
@@ -63,6 +70,12 @@ public class OrdersIntegrationTests {
     @Autowired
     private NewMatchedOrdersRepository newMatchedOrdersRepository;
 
+    @Autowired
+    private MatchExpirySweeper matchExpirySweeper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
     @Autowired
     private TestRestTemplate testRestTemplate;
 
@@ -344,6 +357,222 @@ public class OrdersIntegrationTests {
                 });
     }
 
+    @Test
+    void givenMatchedOrder_whenCoordinatesEdited_thenMatchesFollowTheOrder() {
+        ServicesEntity service = servicesRepository.findById(SERVICE_NAME).orElse(null);
+        if (service == null) {
+            service = new ServicesEntity();
+            service.setName(SERVICE_NAME);
+            servicesRepository.save(service);
+        }
+
+        UserEntity warsawOperator = createTestOperator("op_warsaw", "52.2200, 21.0100", 20, service);
+        UserEntity krakowOperator = createTestOperator("op_krakow", "50.0647, 19.9450", 20, service);
+
+        String clientToken = registerAndLogin();
+
+        OrderRequest orderRequest = OrderRequest.builder()
+                .title("Szukam drona")
+                .description("Opis")
+                .service(SERVICE_NAME)
+                .coordinates("52.23, 21.01")
+                .fromDate(LocalDateTime.now().plusDays(1))
+                .toDate(LocalDateTime.now().plusDays(2))
+                .build();
+
+        ResponseEntity<OrderResponse> response = testRestTemplate.exchange(
+                "/api/orders/createOrder",
+                HttpMethod.POST,
+                new HttpEntity<>(orderRequest, getHeaders(clientToken)),
+                OrderResponse.class
+        );
+        Assertions.assertNotNull(response.getBody());
+        UUID orderId = response.getBody().getId();
+
+        await().atMost(10, SECONDS).untilAsserted(() -> assertThat(newMatchedOrdersRepository.findByOrderIdAndOperatorId(orderId, warsawOperator.getId()))
+                .isPresent());
+
+        OrderUpdateRequest updateRequest = new OrderUpdateRequest();
+        updateRequest.setCoordinates("50.06, 19.94");
+
+        ResponseEntity<OrderResponse> patchResponse = testRestTemplate.exchange(
+                "/api/orders/editOrder/" + orderId,
+                HttpMethod.PATCH,
+                new HttpEntity<>(updateRequest, getHeaders(clientToken)),
+                OrderResponse.class
+        );
+        assertThat(patchResponse.getStatusCode()).isEqualTo(HttpStatus.OK);
+
+        await().atMost(10, SECONDS).untilAsserted(() -> {
+            assertThat(newMatchedOrdersRepository.findByOrderIdAndOperatorId(orderId, krakowOperator.getId())).isPresent();
+            NewMatchedOrderEntity retired = newMatchedOrdersRepository.findByOrderIdAndOperatorId(orderId, warsawOperator.getId()).orElseThrow();
+            assertThat(retired.getOperatorStatus()).isEqualTo(MatchedOrderStatus.EXPIRED);
+            assertThat(retired.getClientStatus()).isEqualTo(MatchedOrderStatus.EXPIRED);
+        });
+
+        updateRequest.setCoordinates("52.23, 21.01");
+        testRestTemplate.exchange(
+                "/api/orders/editOrder/" + orderId,
+                HttpMethod.PATCH,
+                new HttpEntity<>(updateRequest, getHeaders(clientToken)),
+                OrderResponse.class
+        );
+
+        await().atMost(10, SECONDS).untilAsserted(() -> {
+            NewMatchedOrderEntity revived = newMatchedOrdersRepository.findByOrderIdAndOperatorId(orderId, warsawOperator.getId()).orElseThrow();
+            assertThat(revived.getOperatorStatus()).isEqualTo(MatchedOrderStatus.PENDING);
+            assertThat(revived.getClientStatus()).isEqualTo(MatchedOrderStatus.PENDING);
+        });
+    }
+
+    @Test
+    void givenOpenOrderPastDeadline_whenExpirySweepRuns_thenOrderIsCancelledAndPendingMatchesRejected() {
+        ServicesEntity service = servicesRepository.findById(SERVICE_NAME).orElseThrow();
+        UserEntity operator = createTestOperator("op_expiry", "52.2200, 21.0100", 20, service);
+        UserEntity client = userRepository.save(UserEntity.builder()
+                .displayName("client_expiry")
+                .email("client_expiry@test.pl")
+                .password(passwordEncoder.encode("pass"))
+                .role(UserRole.CLIENT)
+                .name("Jan").surname("Kowalski")
+                .build());
+
+        OrdersEntity expired = ordersRepository.save(OrdersEntity.builder()
+                .title("Expired")
+                .description("Past deadline")
+                .service(service)
+                .coordinates("52.23, 21.01")
+                .fromDate(LocalDateTime.now().minusDays(3))
+                .toDate(LocalDateTime.now().minusDays(1))
+                .status(OrderStatus.OPEN)
+                .user(client)
+                .createdAt(LocalDateTime.now().minusDays(4))
+                .build());
+        OrdersEntity upcoming = ordersRepository.save(OrdersEntity.builder()
+                .title("Upcoming")
+                .description("Still open")
+                .service(service)
+                .coordinates("52.23, 21.01")
+                .fromDate(LocalDateTime.now().plusDays(1))
+                .toDate(LocalDateTime.now().plusDays(2))
+                .status(OrderStatus.OPEN)
+                .user(client)
+                .createdAt(LocalDateTime.now())
+                .build());
+        for (OrdersEntity order : List.of(expired, upcoming)) {
+            newMatchedOrdersRepository.save(NewMatchedOrderEntity.builder()
+                    .operator(operator)
+                    .order(order)
+                    .operatorStatus(MatchedOrderStatus.PENDING)
+                    .clientStatus(MatchedOrderStatus.PENDING)
+                    .build());
+        }
+
+        matchExpirySweeper.sweep();
+
+        assertThat(ordersRepository.findById(expired.getId()).orElseThrow().getStatus()).isEqualTo(OrderStatus.CANCELLED);
+        assertThat(ordersRepository.findById(upcoming.getId()).orElseThrow().getStatus()).isEqualTo(OrderStatus.OPEN);
+        NewMatchedOrderEntity expiredMatch = newMatchedOrdersRepository.findByOrderIdAndOperatorId(expired.getId(), operator.getId()).orElseThrow();
+        assertThat(expiredMatch.getOperatorStatus()).isEqualTo(MatchedOrderStatus.REJECTED);
+        assertThat(expiredMatch.getClientStatus()).isEqualTo(MatchedOrderStatus.REJECTED);
+        assertThat(newMatchedOrdersRepository.findByOrderIdAndOperatorId(upcoming.getId(), operator.getId()).orElseThrow().getOperatorStatus())
+                .isEqualTo(MatchedOrderStatus.PENDING);
+    }
+
+    @Test
+    void givenAwaitingOperatorOrderPastDeadline_whenExpirySweepRuns_thenOrderAndMatchesAreKept() {
+        ServicesEntity service = servicesRepository.findById(SERVICE_NAME).orElseThrow();
+        UserEntity acceptingOperator = createTestOperator("op_awaiting_accepted", "52.2200, 21.0100", 20, service);
+        UserEntity pendingOperator = createTestOperator("op_awaiting_pending", "52.2200, 21.0100", 20, service);
+        UserEntity client = userRepository.save(UserEntity.builder()
+                .displayName("client_awaiting")
+                .email("client_awaiting@test.pl")
+                .password(passwordEncoder.encode("pass"))
+                .role(UserRole.CLIENT)
+                .name("Jan").surname("Kowalski")
+                .build());
+
+        OrdersEntity awaiting = ordersRepository.save(OrdersEntity.builder()
+                .title("Awaiting")
+                .description("Accepted by an operator before the deadline")
+                .service(service)
+                .coordinates("52.23, 21.01")
+                .fromDate(LocalDateTime.now().minusDays(3))
+                .toDate(LocalDateTime.now().minusDays(1))
+                .status(OrderStatus.AWAITING_OPERATOR)
+                .user(client)
+                .createdAt(LocalDateTime.now().minusDays(4))
+                .build());
+        newMatchedOrdersRepository.save(NewMatchedOrderEntity.builder()
+                .operator(acceptingOperator)
+                .order(awaiting)
+                .operatorStatus(MatchedOrderStatus.ACCEPTED)
+                .clientStatus(MatchedOrderStatus.PENDING)
+                .build());
+        newMatchedOrdersRepository.save(NewMatchedOrderEntity.builder()
+                .operator(pendingOperator)
+                .order(awaiting)
+                .operatorStatus(MatchedOrderStatus.PENDING)
+                .clientStatus(MatchedOrderStatus.PENDING)
+                .build());
+
+        matchExpirySweeper.sweep();
+
+        assertThat(ordersRepository.findById(awaiting.getId()).orElseThrow().getStatus()).isEqualTo(OrderStatus.AWAITING_OPERATOR);
+        NewMatchedOrderEntity accepted = newMatchedOrdersRepository.findByOrderIdAndOperatorId(awaiting.getId(), acceptingOperator.getId()).orElseThrow();
+        assertThat(accepted.getOperatorStatus()).isEqualTo(MatchedOrderStatus.ACCEPTED);
+        assertThat(accepted.getClientStatus()).isEqualTo(MatchedOrderStatus.PENDING);
+        NewMatchedOrderEntity pending = newMatchedOrdersRepository.findByOrderIdAndOperatorId(awaiting.getId(), pendingOperator.getId()).orElseThrow();
+        assertThat(pending.getOperatorStatus()).isEqualTo(MatchedOrderStatus.PENDING);
+        assertThat(pending.getClientStatus()).isEqualTo(MatchedOrderStatus.PENDING);
+    }
+
+    @Test
+    void givenOpenOrderPastDeadline_whenExpirySweepCancelsIt_thenClientStreamReceivesStatusEvent() throws Exception {
+        String clientToken = registerAndLogin();
+        UserEntity client = userRepository.findByEmail(userLogin.email()).orElseThrow();
+        ServicesEntity service = servicesRepository.findById(SERVICE_NAME).orElseThrow();
+        OrdersEntity expired = ordersRepository.save(OrdersEntity.builder()
+                .title("Expired")
+                .description("Past deadline")
+                .service(service)
+                .coordinates("52.23, 21.01")
+                .fromDate(LocalDateTime.now().minusDays(3))
+                .toDate(LocalDateTime.now().minusDays(1))
+                .status(OrderStatus.OPEN)
+                .user(client)
+                .createdAt(LocalDateTime.now().minusDays(4))
+                .build());
+
+        List<String> received = new CopyOnWriteArrayList<>();
+        HttpRequest streamRequest = HttpRequest.newBuilder(URI.create(testRestTemplate.getRootUri() + "/api/orders/streamMyOrders"))
+                .header("X-USER-TOKEN", "Bearer " + clientToken)
+                .build();
+        HttpClient httpClient = HttpClient.newHttpClient();
+        try {
+            HttpResponse<Stream<String>> stream = httpClient
+                    .sendAsync(streamRequest, HttpResponse.BodyHandlers.ofLines())
+                    .get(5, SECONDS);
+            assertThat(stream.statusCode()).isEqualTo(200);
+            Thread.ofVirtual().start(() -> stream.body().forEach(received::add));
+            assertThat(jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM sse_subscribers WHERE channel = 'clients' AND subscriber_id = ?",
+                    Long.class, client.getId())).isEqualTo(1);
+
+            matchExpirySweeper.sweep();
+
+            await().atMost(5, SECONDS).untilAsserted(() -> assertThat(received)
+                    .contains("event:" + OrderStatusStream.ORDER_STATUS_EVENT)
+                    .anySatisfy(line -> assertThat(line)
+                            .startsWith("data:")
+                            .contains(expired.getId().toString())
+                            .contains("CANCELLED")));
+        } finally {
+            // The stream never ends on its own, so close() would wait for it forever.
+            httpClient.shutdownNow();
+        }
+    }
+
     private UserEntity createTestOperator(String username, String coords, int radius, ServicesEntity service) {
         UserEntity operator = UserEntity.builder()
                 .displayName(username)
@@ -1238,6 +1467,58 @@ public class OrdersIntegrationTests {
         assertThat(orderInDb.getStatus()).isEqualTo(OrderStatus.CANCELLED);
     }
 
+    @Test
+    void givenOpenOrderStream_whenOwnerCancelsOrder_thenStatusChangeIsPushed() throws Exception {
+        String clientToken = registerAndLogin();
+
+        OrderRequest orderRequest = OrderRequest.builder()
+                .title("Order to Cancel")
+                .description("Test description")
+                .service(SERVICE_NAME)
+                .coordinates("52.23, 21.01")
+                .fromDate(LocalDateTime.now().plusDays(1))
+                .toDate(LocalDateTime.now().plusDays(2))
+                .build();
+        ResponseEntity<OrderResponse> createResponse = testRestTemplate.exchange(
+                "/api/orders/createOrder",
+                HttpMethod.POST,
+                new HttpEntity<>(orderRequest, getHeaders(clientToken)),
+                OrderResponse.class
+        );
+        Assertions.assertNotNull(createResponse.getBody());
+        UUID orderId = createResponse.getBody().getId();
+
+        List<String> received = new CopyOnWriteArrayList<>();
+        HttpRequest streamRequest = HttpRequest.newBuilder(URI.create(testRestTemplate.getRootUri() + "/api/orders/streamMyOrders"))
+                .header("X-USER-TOKEN", "Bearer " + clientToken)
+                .build();
+        HttpClient httpClient = HttpClient.newHttpClient();
+        try {
+            HttpResponse<Stream<String>> stream = httpClient
+                    .sendAsync(streamRequest, HttpResponse.BodyHandlers.ofLines())
+                    .get(5, SECONDS);
+            assertThat(stream.statusCode()).isEqualTo(200);
+            Thread.ofVirtual().start(() -> stream.body().forEach(received::add));
+
+            testRestTemplate.exchange(
+                    "/api/orders/cancelOrder/" + orderId,
+                    HttpMethod.PATCH,
+                    new HttpEntity<>(getHeaders(clientToken)),
+                    OrderResponse.class
+            );
+
+            await().atMost(5, SECONDS).untilAsserted(() -> assertThat(received)
+                    .contains("event:" + OrderStatusStream.ORDER_STATUS_EVENT)
+                    .anySatisfy(line -> assertThat(line)
+                            .startsWith("data:")
+                            .contains(orderId.toString())
+                            .contains("CANCELLED")));
+        } finally {
+            // The stream never ends on its own, so close() would wait for it forever.
+            httpClient.shutdownNow();
+        }
+    }
+
     @Test
     void givenNotOwner_whenTriesToCancelOrder_thenReturnsError() {
         String client1Token = registerAndLogin();
@@ -1,11 +1,13 @@
 package com.example.drones.photos;
 
+import com.example.drones.common.concurrency.DownstreamLimiter;
 import com.example.drones.common.config.BucketConfiguration;
 import com.example.drones.photos.storage.GcsService;
 import com.google.cloud.storage.Blob;
 import com.google.cloud.storage.BlobId;
 import com.google.cloud.storage.BlobInfo;
 import com.google.cloud.storage.Storage;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -13,12 +15,14 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockedStatic;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.time.Duration;
 import java.util.List;
 import java.util.UUID;
 
@@ -37,6 +41,10 @@ public class GcsServiceTests {
     @Mock
     private BucketConfiguration bucketConfig;
 
+    @Spy
+    private DownstreamLimiter downstreamLimiter =
+            new DownstreamLimiter(new SimpleMeterRegistry(), 1, 1, 1, 1, 1, Duration.ofSeconds(1));
+
     @InjectMocks
     private GcsService gcsService;
 
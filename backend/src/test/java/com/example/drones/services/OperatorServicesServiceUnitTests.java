@@ -1,5 +1,7 @@
 package com.example.drones.services;
 
+import com.example.drones.common.GeoGrid;
+import com.example.drones.common.GeoPoint;
 import com.example.drones.user.UserEntity;
 import com.example.drones.user.UserRole;
 import jakarta.persistence.EntityManager;
@@ -16,6 +18,7 @@ import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -127,6 +130,28 @@ public class OperatorServicesServiceUnitTests {
         verify(operatorServicesRepository).findAllByOperatorId(operator.getId());
     }
 
+    @Test
+    public void givenLocatedOperator_whenRefreshCoverage_thenCoverageCellsAreRewritten() {
+        OperatorServicesService service = new OperatorServicesService(operatorServicesRepository, entityManager, new GeoGrid(0.25), null);
+        operator.setCoordinates("52.2297, 21.0122");
+        operator.setRadius(20);
+
+        service.refreshCoverage(operator);
+
+        verify(operatorServicesRepository).deleteCoverage(operator.getId());
+        ArgumentCaptor<Long[]> captor = ArgumentCaptor.forClass(Long[].class);
+        verify(operatorServicesRepository).insertCoverage(eq(operator.getId()), captor.capture());
+        assertThat(captor.getValue()).contains(new GeoGrid(0.25).cellOf(new GeoPoint(52.2297, 21.0122)));
+    }
+
+    @Test
+    public void givenOperatorWithoutLocation_whenRefreshCoverage_thenCoverageIsOnlyCleared() {
+        operatorServicesService.refreshCoverage(operator);
+
+        verify(operatorServicesRepository).deleteCoverage(operator.getId());
+        verify(operatorServicesRepository, never()).insertCoverage(any(), any());
+    }
+
     private OperatorServicesEntity createOperatorServiceEntity(Integer id, String serviceName, UserEntity operator) {
         OperatorServicesEntity entity = new OperatorServicesEntity();
         entity.setId(id);
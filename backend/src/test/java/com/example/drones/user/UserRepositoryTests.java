@@ -1,5 +1,7 @@
 package com.example.drones.user;
 
+import com.example.drones.common.GeoGrid;
+import com.example.drones.common.GeoPoint;
 import com.example.drones.services.OperatorServicesEntity;
 import com.example.drones.services.OperatorServicesRepository;
 import com.example.drones.services.ServicesEntity;
@@ -36,6 +38,8 @@ class UserRepositoryTests {
     @Autowired
     private OperatorServicesRepository operatorServicesRepository;
 
+    private static final GeoGrid GRID = new GeoGrid(0.25);
+
     private final String SERVICE_NAME = "Filmowanie";
     private UserEntity clientUser;
 
@@ -84,16 +88,23 @@ class UserRepositoryTests {
         link.setService(service);
         link.setServiceName(serviceName);
         operatorServicesRepository.save(link);
+
+        Long[] cells = GRID.coveredCells(GeoPoint.parse(coords), radius).toArray(Long[]::new);
+        operatorServicesRepository.insertCoverage(user.getId(), cells);
     }
 
     @Test
-    void shouldFindOnlyMatchingOperator() {
-        double orderLat = 52.2297;
-        double orderLon = 21.0122;
+    void shouldFindOnlyLocatedOperators() {
+        userRepository.save(UserEntity.builder()
+                .displayName("operator_unlocated")
+                .email("operator_unlocated@test.com")
+                .role(UserRole.OPERATOR)
+                .name("Test").surname("Op").password("pass")
+                .build());
 
-        List<UserEntity> result = userRepository.findMatchingOperators(SERVICE_NAME, orderLat, orderLon, clientUser.getId());
+        List<UserEntity> result = userRepository.findAllLocatedOperators();
 
-        assertThat(result).hasSize(1);
-        assertThat(result.getFirst().getDisplayName()).isEqualTo("operator_ok");
+        assertThat(result).extracting(UserEntity::getDisplayName).containsExactlyInAnyOrder(
+                "operator_ok", "operator_far", "operator_wrong_service", "operator_small_radius");
     }
-}
\ No newline at end of file
+}